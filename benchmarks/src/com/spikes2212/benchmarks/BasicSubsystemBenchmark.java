@@ -0,0 +1,60 @@
+package com.spikes2212.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.spikes2212.genericsubsystems.BasicSubsystem;
+import com.spikes2212.genericsubsystems.utils.InvertedConsumer;
+import com.spikes2212.genericsubsystems.utils.limitationFunctions.TwoLimits;
+
+/**
+ * Measures {@link BasicSubsystem#move(double)} through a chain of
+ * {@link InvertedConsumer}s, limited by {@link TwoLimits}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class BasicSubsystemBenchmark {
+
+	/**
+	 * The amount of {@link InvertedConsumer}s between the subsystem and the
+	 * motor.
+	 */
+	@Param({ "0", "1", "4" })
+	public int inversions;
+
+	/**
+	 * Whether the upper limit is reached, so positive speeds are not written.
+	 */
+	@Param({ "false", "true" })
+	public boolean atMaxLimit;
+
+	private final Inputs speeds = new Inputs(-1.2, 1.2, 2212);
+	private double output;
+	private BasicSubsystem subsystem;
+
+	@Setup
+	public void setup() {
+		Consumer<Double> consumer = (speed) -> output = speed;
+		for (int i = 0; i < inversions; i++) {
+			consumer = new InvertedConsumer(consumer);
+		}
+		boolean maxLimit = atMaxLimit;
+		subsystem = new BasicSubsystem(consumer, new TwoLimits(() -> maxLimit, () -> false));
+	}
+
+	@Benchmark
+	public double move() {
+		subsystem.move(speeds.next());
+		return output;
+	}
+}
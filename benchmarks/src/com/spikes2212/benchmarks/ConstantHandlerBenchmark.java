@@ -0,0 +1,53 @@
+package com.spikes2212.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.spikes2212.dashboard.ConstantHandler;
+
+/**
+ * Measures reading constants made using {@link ConstantHandler}, which
+ * commands usually do every loop.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ConstantHandlerBenchmark {
+
+	private Supplier<Double> doubleConstant;
+	private Supplier<Integer> intConstant;
+	private Supplier<String> stringConstant;
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < 50; i++) {
+			ConstantHandler.addConstantDouble("filler " + i, i);
+		}
+		doubleConstant = ConstantHandler.addConstantDouble("speed", 0.6);
+		intConstant = ConstantHandler.addConstantInt("count", 1000);
+		stringConstant = ConstantHandler.addConstantString("name", "spikes");
+	}
+
+	@Benchmark
+	public double readDouble() {
+		return doubleConstant.get();
+	}
+
+	@Benchmark
+	public int readInt() {
+		return intConstant.get();
+	}
+
+	@Benchmark
+	public String readString() {
+		return stringConstant.get();
+	}
+}
@@ -0,0 +1,59 @@
+package com.spikes2212.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.spikes2212.dashboard.DashBoardController;
+
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+/**
+ * Measures {@link DashBoardController#update()} with different amounts of
+ * fields, split evenly between numbers, booleans and strings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class DashBoardControllerBenchmark {
+
+	/**
+	 * The amount of fields on the dashboard.
+	 */
+	@Param({ "10", "100", "1000" })
+	public int fields;
+
+	private final Inputs values = new Inputs(-1, 1, 2212);
+	private DashBoardController controller;
+
+	@Setup
+	public void setup() {
+		controller = new DashBoardController();
+		for (int i = 0; i < fields; i++) {
+			switch (i % 3) {
+			case 0:
+				controller.addDouble("double " + i, values::next);
+				break;
+			case 1:
+				controller.addBoolean("boolean " + i, () -> values.next() > 0);
+				break;
+			default:
+				String value = "string " + i;
+				controller.addString("string " + i, () -> value);
+			}
+		}
+	}
+
+	@Benchmark
+	public double update() {
+		controller.update();
+		return SmartDashboard.lastNumber;
+	}
+}
@@ -0,0 +1,43 @@
+package com.spikes2212.benchmarks;
+
+import java.util.Random;
+
+/**
+ * This class gives the benchmarks a repeating sequence of inputs, so every
+ * invocation works on a different value.
+ */
+class Inputs {
+
+	private static final int SIZE = 1024;
+
+	private final double[] values = new double[SIZE];
+	private int index = 0;
+
+	/**
+	 * Constructs new {@link Inputs} with values spread evenly at random
+	 * between the given bounds. Inputs that are used together should be given
+	 * different seeds, so their values are not the same.
+	 *
+	 * @param min
+	 *            the lowest value
+	 * @param max
+	 *            the highest value
+	 * @param seed
+	 *            the seed of the random values, so every run gets the same
+	 *            sequence
+	 */
+	Inputs(double min, double max, long seed) {
+		Random random = new Random(seed);
+		for (int i = 0; i < SIZE; i++) {
+			values[i] = min + random.nextDouble() * (max - min);
+		}
+	}
+
+	/**
+	 * @return the next value in the sequence.
+	 */
+	double next() {
+		index = (index + 1) & (SIZE - 1);
+		return values[index];
+	}
+}
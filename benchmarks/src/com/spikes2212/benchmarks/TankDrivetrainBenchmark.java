@@ -0,0 +1,45 @@
+package com.spikes2212.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain;
+
+/**
+ * Measures the drive methods of {@link TankDrivetrain}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class TankDrivetrainBenchmark {
+
+	private final Inputs moves = new Inputs(-1, 1, 2212);
+	private final Inputs rotates = new Inputs(-1, 1, 4424);
+	private double left;
+	private double right;
+	private TankDrivetrain drivetrain;
+
+	@Setup
+	public void setup() {
+		drivetrain = new TankDrivetrain((speed) -> left = speed, (speed) -> right = speed);
+	}
+
+	@Benchmark
+	public double arcadeDrive() {
+		drivetrain.arcadeDrive(moves.next(), rotates.next());
+		return left + right;
+	}
+
+	@Benchmark
+	public double curvatureDrive() {
+		drivetrain.curvatureDrive(moves.next(), rotates.next(), false);
+		return left + right;
+	}
+}
@@ -0,0 +1,57 @@
+package com.spikes2212.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.spikes2212.utils.VoltageMonitor;
+
+import edu.wpi.first.wpilibj.PowerDistributionPanel;
+
+/**
+ * Measures reading speeds through chains of
+ * {@link VoltageMonitor#monitorSupplier(Supplier)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class VoltageMonitorBenchmark {
+
+	/**
+	 * The amount of monitored suppliers wrapping each other.
+	 */
+	@Param({ "1", "3" })
+	public int depth;
+
+	/**
+	 * The battery voltage, below, between and above the default limits.
+	 */
+	@Param({ "6", "8.5", "12" })
+	public double voltage;
+
+	private final Inputs speeds = new Inputs(-1, 1, 2212);
+	private Supplier<Double> monitored;
+
+	@Setup
+	public void setup() {
+		PowerDistributionPanel.voltage = voltage;
+		Supplier<Double> supplier = speeds::next;
+		for (int i = 0; i < depth; i++) {
+			supplier = VoltageMonitor.monitorSupplier(supplier);
+		}
+		monitored = supplier;
+	}
+
+	@Benchmark
+	public double monitorSupplier() {
+		return monitored.get();
+	}
+}
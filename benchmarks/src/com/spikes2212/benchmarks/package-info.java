@@ -0,0 +1,8 @@
+/**
+ * com.spikes2212.benchmarks contains JMH benchmarks of the library's code that runs every robot loop. <br>
+ *
+ * Each benchmark cycles through precomputed inputs, so the JIT can't fold the measured code into a constant. Run them
+ * using {@code ant bench} in the benchmarks directory; the GC profiler reports the bytes allocated by each operation,
+ * which should stay at 0 for code that runs every loop.
+ */
+package com.spikes2212.benchmarks;
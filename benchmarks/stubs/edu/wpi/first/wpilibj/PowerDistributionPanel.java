@@ -0,0 +1,14 @@
+package edu.wpi.first.wpilibj;
+
+/**
+ * Stand-in for wpilib's PowerDistributionPanel, reporting a voltage set by the
+ * benchmark instead of reading it over CAN.
+ */
+public class PowerDistributionPanel {
+
+	public static volatile double voltage = 12;
+
+	public double getVoltage() {
+		return voltage;
+	}
+}
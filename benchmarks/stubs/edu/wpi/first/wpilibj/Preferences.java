@@ -0,0 +1,50 @@
+package edu.wpi.first.wpilibj;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stand-in for wpilib's Preferences, keeping the values in a map instead of
+ * NetworkTables and the roboRIO's file system.
+ */
+public class Preferences {
+
+	private static final Preferences instance = new Preferences();
+
+	private final Map<String, Object> values = new HashMap<>();
+
+	public static Preferences getInstance() {
+		return instance;
+	}
+
+	public synchronized boolean containsKey(String key) {
+		return values.containsKey(key);
+	}
+
+	public synchronized void putDouble(String key, double value) {
+		values.put(key, value);
+	}
+
+	public synchronized void putInt(String key, int value) {
+		values.put(key, value);
+	}
+
+	public synchronized void putString(String key, String value) {
+		values.put(key, value);
+	}
+
+	public synchronized double getDouble(String key, double backup) {
+		Object value = values.get(key);
+		return value instanceof Double ? (Double) value : backup;
+	}
+
+	public synchronized int getInt(String key, int backup) {
+		Object value = values.get(key);
+		return value instanceof Integer ? (Integer) value : backup;
+	}
+
+	public synchronized String getString(String key, String backup) {
+		Object value = values.get(key);
+		return value instanceof String ? (String) value : backup;
+	}
+}
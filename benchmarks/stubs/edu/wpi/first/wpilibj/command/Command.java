@@ -0,0 +1,23 @@
+package edu.wpi.first.wpilibj.command;
+
+/**
+ * Stand-in for wpilib's Command, so library classes that refer to commands
+ * can be loaded without the HAL. Commands are not run by the benchmarks.
+ */
+public abstract class Command {
+
+	protected void initialize() {
+	}
+
+	protected void execute() {
+	}
+
+	protected abstract boolean isFinished();
+
+	protected void end() {
+	}
+
+	protected void interrupted() {
+		end();
+	}
+}
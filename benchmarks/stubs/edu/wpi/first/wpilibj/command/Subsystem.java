@@ -0,0 +1,19 @@
+package edu.wpi.first.wpilibj.command;
+
+/**
+ * Stand-in for wpilib's Subsystem, without registering to the scheduler.
+ */
+public abstract class Subsystem {
+
+	private Command defaultCommand;
+
+	protected abstract void initDefaultCommand();
+
+	public void setDefaultCommand(Command command) {
+		defaultCommand = command;
+	}
+
+	public Command getDefaultCommand() {
+		return defaultCommand;
+	}
+}
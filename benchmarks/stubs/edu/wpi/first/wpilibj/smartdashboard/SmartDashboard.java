@@ -0,0 +1,32 @@
+package edu.wpi.first.wpilibj.smartdashboard;
+
+/**
+ * Stand-in for wpilib's SmartDashboard. Values are kept in fields instead of
+ * being sent over NetworkTables, so only the cost of the library's own code is
+ * measured.
+ */
+public class SmartDashboard {
+
+	public static volatile String lastKey;
+	public static volatile double lastNumber;
+	public static volatile boolean lastBoolean;
+	public static volatile String lastString;
+
+	public static boolean putNumber(String key, double value) {
+		lastKey = key;
+		lastNumber = value;
+		return true;
+	}
+
+	public static boolean putBoolean(String key, boolean value) {
+		lastKey = key;
+		lastBoolean = value;
+		return true;
+	}
+
+	public static boolean putString(String key, String value) {
+		lastKey = key;
+		lastString = value;
+		return true;
+	}
+}
@@ -3,8 +3,7 @@ package com.spikes2212.genericsubsystems.commands;
 import java.util.function.Supplier;
 
 import com.spikes2212.genericsubsystems.BasicSubsystem;
-
-import edu.wpi.first.wpilibj.command.Command;
+import com.spikes2212.utils.ProfiledCommand;
 
 /**
  * This command moves a {@link BasicSubsystem} according to a {@link Supplier}
@@ -14,7 +13,7 @@ import edu.wpi.first.wpilibj.command.Command;
  * @author Omri "Riki" Cohen and Itamar Rivkind
  * @see BasicSubsystem
  */
-public class MoveBasicSubsystem extends Command {
+public class MoveBasicSubsystem extends ProfiledCommand {
 
 	protected final BasicSubsystem basicSubsystem;
 	protected final Supplier<Double> speedSupplier;
@@ -52,11 +51,11 @@ public class MoveBasicSubsystem extends Command {
 	}
 
 	// Called just before this Command runs the first time
-	protected void initialize() {
+	protected void doInitialize() {
 	}
 
 	// Called repeatedly when this Command is scheduled to run
-	protected void execute() {
+	protected void doExecute() {
 		basicSubsystem.move(speedSupplier.get());
 	}
 
@@ -70,12 +69,12 @@ public class MoveBasicSubsystem extends Command {
 	 * 
 	 * @see BasicSubsystem#canMove
 	 */
-	protected boolean isFinished() {
+	protected boolean doIsFinished() {
 		return !basicSubsystem.canMove.apply(speedSupplier.get()) || isTimedOut();
 	}
 
 	// Called once after isFinished returns true
-	protected void end() {
+	protected void doEnd() {
 		basicSubsystem.stop();
 	}
 
@@ -36,7 +36,7 @@ public class MoveBasicSubsystemToTarget extends MoveBasicSubsystem {
 		this.onTarget = onTarget;
 	}
 
-	protected boolean isFinished() {
-		return onTarget.get() || super.isFinished();
+	protected boolean doIsFinished() {
+		return onTarget.get() || super.doIsFinished();
 	}
 }
@@ -3,16 +3,16 @@ package com.spikes2212.genericsubsystems.commands;
 import java.util.function.Supplier;
 
 import com.spikes2212.genericsubsystems.BasicSubsystem;
+import com.spikes2212.utils.Clock;
+import com.spikes2212.utils.PIDLoop;
 import com.spikes2212.utils.PIDSettings;
+import com.spikes2212.utils.ProfiledCommand;
+import com.spikes2212.utils.SettleDetector;
 
-import edu.wpi.first.wpilibj.PIDController;
 import edu.wpi.first.wpilibj.PIDSource;
-import edu.wpi.first.wpilibj.Timer;
-import edu.wpi.first.wpilibj.command.Command;
 
 /**
- * This command moves a {@link BasicSubsystem} using wpilib's <a href=
- * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>.
+ * This command moves a {@link BasicSubsystem} using a {@link PIDLoop}.
  * It also waits a specified amount of time after the error is within the given
  * tolerance before stopping the PID loop to make sure the
  * {@link BasicSubsystem} doesn't go past the setpoint.
@@ -28,17 +28,16 @@ import edu.wpi.first.wpilibj.command.Command;
  * @see BasicSubsystem
  * @see <a href=
  *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSources</a>
- * @see <a href=
- *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+ * @see PIDLoop
  */
-public class MoveBasicSubsystemWithPID extends Command {
+public class MoveBasicSubsystemWithPID extends ProfiledCommand {
 
 	protected final BasicSubsystem basicSubsystem;
 	protected final PIDSettings PIDSettings;
 	protected final Supplier<Double> setpoint;
 	protected final PIDSource source;
-	protected PIDController movmentControl;
-	protected double lastTimeNotOnTarget;
+	protected PIDLoop movmentControl;
+	protected final SettleDetector settleDetector = new SettleDetector(0, 0);
 
 	/**
 	 * This constructs a new {@link MoveBasicSubsystemWithPID} using a <a href=
@@ -61,10 +60,9 @@ public class MoveBasicSubsystemWithPID extends Command {
  	 *            values using the same units as source.
  	 *            </p>
 	 * @param PIDSettings
-	 *            the {@link PIDSettings} this command's PIDController needs.
+	 *            the {@link PIDSettings} this command's PID loop needs.
 	 * 
-	 * @see <a href=
-	 *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * @see PIDLoop
 	 */
 	public MoveBasicSubsystemWithPID(BasicSubsystem basicSubsystem, PIDSource source, Supplier<Double> setpoint,
 			PIDSettings PIDSettings) {
@@ -97,10 +95,9 @@ public class MoveBasicSubsystemWithPID extends Command {
  	 *            source.
  	 *            </p>
 	 * @param PIDSettings
-	 *            the {@link PIDSettings} this command's PIDController needs.
+	 *            the {@link PIDSettings} this command's PID loop needs.
 	 * 
-	 * @see <a href=
-	 *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * @see PIDLoop
 	 */
 	public MoveBasicSubsystemWithPID(BasicSubsystem BasicSubsystem, PIDSource source, double setpoint,
 			PIDSettings PIDSettings) {
@@ -141,17 +138,15 @@ public class MoveBasicSubsystemWithPID extends Command {
 	 * @param tolerance
 	 *            the tolerance in the same units as the {@link #source}.
 	 * 
-	 * @see <a href=
-	 *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * @see PIDLoop
 	 */
 	public void setTolerance(double tolerance) {
 		PIDSettings.setTolerance(tolerance);
 	}
 
 	/**
-	 * Gets the {@link PIDSettings} the <a href=
-	 * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
-	 * uses for this command.
+	 * Gets the {@link PIDSettings} the {@link PIDLoop} uses
+	 * for this command.
 	 * 
 	 * @return The PIDSettings object
 	 */
@@ -160,32 +155,32 @@ public class MoveBasicSubsystemWithPID extends Command {
 	}
 
 	// Called just before this Command runs the first time
-	protected void initialize() {
-		movmentControl = new PIDController(PIDSettings.getKP(), PIDSettings.getKI(), PIDSettings.getKD(), source,
+	protected void doInitialize() {
+		movmentControl = new PIDLoop(PIDSettings.getKP(), PIDSettings.getKI(), PIDSettings.getKD(), source,
 				basicSubsystem::move);
 		movmentControl.setAbsoluteTolerance(PIDSettings.getTolerance());
 		movmentControl.setSetpoint(this.setpoint.get());
 		movmentControl.setOutputRange(-1, 1);
 		movmentControl.enable();
+		settleDetector.setTolerance(PIDSettings.getTolerance());
+		settleDetector.setWaitTime(PIDSettings.getWaitTime());
+		settleDetector.reset();
 	}
 
 	// Called repeatedly when this Command is scheduled to run
-	protected void execute() {
+	protected void doExecute() {
 		double newSetpoint = setpoint.get();
 		if (movmentControl.getSetpoint() != newSetpoint)
 			movmentControl.setSetpoint(newSetpoint);
 	}
 
 	// Make this return true when this Command no longer needs to run execute()
-	protected boolean isFinished() {
-		if (!movmentControl.onTarget()) {
-			lastTimeNotOnTarget = Timer.getFPGATimestamp();
-		}
-		return Timer.getFPGATimestamp() - lastTimeNotOnTarget >= PIDSettings.getWaitTime();
+	protected boolean doIsFinished() {
+		return settleDetector.update(movmentControl.getError(), Clock.now());
 	}
 
 	// Called once after isFinished returns true
-	protected void end() {
+	protected void doEnd() {
 		movmentControl.disable();
 		basicSubsystem.stop();
 	}
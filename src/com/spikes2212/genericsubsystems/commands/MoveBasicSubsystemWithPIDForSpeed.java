@@ -3,22 +3,22 @@ package com.spikes2212.genericsubsystems.commands;
 import java.util.function.Supplier;
 
 import com.spikes2212.genericsubsystems.BasicSubsystem;
+import com.spikes2212.utils.PIDLoop;
 import com.spikes2212.utils.PIDSettings;
 
-import edu.wpi.first.wpilibj.PIDController;
 import edu.wpi.first.wpilibj.PIDSource;
 import edu.wpi.first.wpilibj.PIDSourceType;
 
 /**
  * This command makes a {@link BasicSubsystem} using wpilib's
- * {@link PIDController} with a given speed and not a given voltage. After
+ * {@link PIDLoop} with a given speed and not a given voltage. After
  * reaching the wanted speed it sticks to this speed until this command is
  * stoped.
  *
  * @author Omri "Riki"
  * @see BasicSubsystem
  * @see MoveBasicSubsystemWithPID
- * @see PIDController
+ * @see PIDLoop
  * @see PIDSettings
  */
 public class MoveBasicSubsystemWithPIDForSpeed extends MoveBasicSubsystemWithPID {
@@ -39,8 +39,8 @@ public class MoveBasicSubsystemWithPIDForSpeed extends MoveBasicSubsystemWithPID
 	 *            a supplier supplying the speed the {@link BasicSubsystem}
 	 *            should move at.
 	 * @param PIDSettings
-	 *            the {@link PIDSettings} this command's PIDController needs.
-	 * @see PIDController
+	 *            the {@link PIDSettings} this command's PID loop needs.
+	 * @see PIDLoop
 	 */
 	public MoveBasicSubsystemWithPIDForSpeed(BasicSubsystem basicSubsystem, PIDSource source,
 			Supplier<Double> wantedSpeed, PIDSettings PIDSettings, double acceleration) {
@@ -62,8 +62,8 @@ public class MoveBasicSubsystemWithPIDForSpeed extends MoveBasicSubsystemWithPID
 	 * @param wantedSpeed
 	 *            the speed the {@link BasicSubsystem} should move at.
 	 * @param PIDSettings
-	 *            the {@link PIDSettings} this command's PIDController needs.
-	 * @see PIDController
+	 *            the {@link PIDSettings} this command's PID loop needs.
+	 * @see PIDLoop
 	 */
 	public MoveBasicSubsystemWithPIDForSpeed(BasicSubsystem basicSubsystem, PIDSource source, double wantedSpeed,
 			PIDSettings PIDSettings, double acceleration) {
@@ -71,14 +71,14 @@ public class MoveBasicSubsystemWithPIDForSpeed extends MoveBasicSubsystemWithPID
 	}
 
 	@Override
-	protected void initialize() {
+	protected void doInitialize() {
 		/*
-		 * in PID for speed instead of the PIDController changing the speed to
-		 * get closer to the wanted location, the PIDController is changing the
+		 * in PID for speed instead of the PID loop changing the speed to
+		 * get closer to the wanted location, the PID loop is changing the
 		 * voltage to get closer to the wanted speed. It does that by adding to
 		 * the current voltage to get to the wanted speed.
 		 */
-		movmentControl = new PIDController(PIDSettings.getKP(), PIDSettings.getKI(), PIDSettings.getKD(), source,
+		movmentControl = new PIDLoop(PIDSettings.getKP(), PIDSettings.getKI(), PIDSettings.getKD(), source,
 				(additionalSpeed) -> basicSubsystem.move(basicSubsystem.getSpeed() + additionalSpeed * acceleration));
 		movmentControl.setAbsoluteTolerance(PIDSettings.getTolerance());
 		movmentControl.setSetpoint(this.setpoint.get());
@@ -87,7 +87,7 @@ public class MoveBasicSubsystemWithPIDForSpeed extends MoveBasicSubsystemWithPID
 	}
 
 	@Override
-	protected boolean isFinished() {
+	protected boolean doIsFinished() {
 		return false; // The subsystem should not stop when reaching the wanted
 						// speed.
 	}
@@ -3,8 +3,8 @@ package com.spikes2212.genericsubsystems.commands;
 import java.util.function.Supplier;
 
 import com.spikes2212.genericsubsystems.BasicSubsystem;
-
-import edu.wpi.first.wpilibj.Timer;
+import com.spikes2212.utils.Clock;
+import com.spikes2212.utils.SettleDetector;
 
 /**
  * This command moves a BasicSubsystem according to a Supplier or a constant
@@ -23,9 +23,10 @@ public class MoveBasicSubsystemWithTimeSinceReachingLimit extends MoveBasicSubsy
 	protected double waitTime;
 
 	/**
-	 * The last time the {@link BasicSubsystem} has been on the wanted endState.
+	 * Decides when the {@link BasicSubsystem} has been at its limit for the
+	 * wait time.
 	 */
-	protected double lastTimeAtEndState = 0;
+	protected final SettleDetector settleDetector = new SettleDetector(0, 0);
 
 	/**
 	 * This constructs a new
@@ -69,6 +70,13 @@ public class MoveBasicSubsystemWithTimeSinceReachingLimit extends MoveBasicSubsy
 		this.waitTime = waitTime;
 	}
 
+	@Override
+	protected void doInitialize() {
+		super.doInitialize();
+		settleDetector.setWaitTime(waitTime);
+		settleDetector.reset();
+	}
+
 	/**
 	 * Checks if the subsystem can move with the current speed according to the
 	 * limits given in the BasicSubsystem constructor, then checks if the system
@@ -77,23 +85,8 @@ public class MoveBasicSubsystemWithTimeSinceReachingLimit extends MoveBasicSubsy
 	 * @see MoveBasicSubsystemWithTimeSinceReachingLimit#waitTime
 	 */
 	@Override
-	protected boolean isFinished() {
-		double currentTime = Timer.getFPGATimestamp();
-		if (!super.isFinished()) { /*
-									 * if not in the ending position reset the
-									 * timer.
-									 */
-			lastTimeAtEndState = currentTime;
-		}
-		if (currentTime
-				- lastTimeAtEndState > waitTime) { /*
-													 * if the subsystem was on
-													 * limit the wanted time the
-													 * command is finished.
-													 */
-			return true;
-		}
-		return false;
+	protected boolean doIsFinished() {
+		return settleDetector.update(super.doIsFinished(), Clock.now());
 	}
 
 }
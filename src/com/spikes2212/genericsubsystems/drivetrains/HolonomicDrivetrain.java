@@ -2,6 +2,8 @@ package com.spikes2212.genericsubsystems.drivetrains;
 
 import java.util.function.Consumer;
 
+import com.spikes2212.genericsubsystems.utils.FieldRotation;
+
 /**
  * This class represents a type of Drivetrain with an X (left/right) and Y
  * (forwards/backwards) axes which can be controlled independently, allowing it
@@ -19,6 +21,8 @@ public class HolonomicDrivetrain extends TankDrivetrain {
 	protected final Consumer<Double> controlX;
 	protected final Consumer<Double> controlY;
 
+	private final FieldRotation fieldRotation = new FieldRotation();
+
 	/**
 	 * This constructs a new {@link HolonomicDrivetrain} drivetrain.
 	 * 
@@ -78,4 +82,60 @@ public class HolonomicDrivetrain extends TankDrivetrain {
 		setY(speedY);
 	}
 
+	/**
+	 * Moves the drivetrain on both X and Y axes while rotating it, using given
+	 * speeds for each. If the speeds are out of the range of -1 to 1, they are
+	 * all divided by the same value, keeping the direction of movement.
+	 * 
+	 * <br>
+	 * <br>
+	 * Unlike {@link #holonomicDrive(double, double)}, the Y speed is not given
+	 * to the component controlling the Y axis. It is mixed with the rotation
+	 * and given to the left and right sides, as in
+	 * {@link #tankDrive(double, double)}, so this only works on drivetrains
+	 * whose sides move them along the Y axis.
+	 * 
+	 * @param speedY
+	 *            the speed to set to the Y axis. Positive values move the
+	 *            {@link HolonomicDrivetrain} forward on this axis.
+	 * @param speedX
+	 *            the speed to set to the X axis. Positive values move the
+	 *            {@link HolonomicDrivetrain} forward on this axis.
+	 * @param rotate
+	 *            the speed to turn with. Positive values turn left.
+	 */
+	public void holonomicArcadeDrive(double speedY, double speedX, double rotate) {
+		double scale = Math.max(1, Math.max(Math.abs(speedX), Math.abs(speedY) + Math.abs(rotate)));
+		setX(speedX / scale);
+		tankDrive((speedY - rotate) / scale, (speedY + rotate) / scale);
+	}
+
+	/**
+	 * Moves the drivetrain relative to the field instead of relative to itself,
+	 * while rotating it. The Y speed moves the drivetrain away from where it
+	 * faced when its heading was 0, and the X speed moves it to that direction's
+	 * right, whichever way the drivetrain is facing now.
+	 * 
+	 * <br>
+	 * <br>
+	 * The speeds are rotated by the heading using a {@link FieldRotation} and
+	 * then given to {@link #holonomicArcadeDrive(double, double, double)}.
+	 * 
+	 * @param speedY
+	 *            the speed to move away from the driver with
+	 * @param speedX
+	 *            the speed to move to the driver's right with
+	 * @param rotate
+	 *            the speed to turn with. Positive values turn left.
+	 * @param heading
+	 *            the heading of the drivetrain in degrees, positive
+	 *            counter-clockwise. Most FRC gyros are positive clockwise, so
+	 *            their angle should be negated.
+	 */
+	public void fieldOrientedDrive(double speedY, double speedX, double rotate, double heading) {
+		fieldRotation.setHeading(heading);
+		holonomicArcadeDrive(fieldRotation.rotateY(speedY, speedX), fieldRotation.rotateX(speedY, speedX),
+				rotate);
+	}
+
 }
@@ -0,0 +1,111 @@
+package com.spikes2212.genericsubsystems.drivetrains;
+
+import java.util.function.Consumer;
+
+import com.spikes2212.genericsubsystems.utils.FieldRotation;
+
+/**
+ * This class represents a type of Drivetrain with a mecanum wheel at each
+ * corner, each controlled independently, allowing it to move in any direction
+ * while turning.
+ * 
+ * <br>
+ * <br>
+ * This Drivetrain extends {@link TankDrivetrain}, which means it can also move
+ * by controlling its left and right sides, each of which sets the same speed
+ * to its front and rear wheels.
+ * 
+ * @see TankDrivetrain
+ * @see HolonomicDrivetrain
+ */
+public class MecanumDrivetrain extends TankDrivetrain {
+
+	protected final Consumer<Double> controlFrontLeft;
+	protected final Consumer<Double> controlFrontRight;
+	protected final Consumer<Double> controlRearLeft;
+	protected final Consumer<Double> controlRearRight;
+
+	private final FieldRotation fieldRotation = new FieldRotation();
+
+	/**
+	 * This constructs a new {@link MecanumDrivetrain} drivetrain.
+	 * 
+	 * @param controlFrontLeft
+	 *            the component controlling the front left wheel
+	 * @param controlFrontRight
+	 *            the component controlling the front right wheel
+	 * @param controlRearLeft
+	 *            the component controlling the rear left wheel
+	 * @param controlRearRight
+	 *            the component controlling the rear right wheel
+	 * 
+	 * @see Consumer
+	 */
+	public MecanumDrivetrain(Consumer<Double> controlFrontLeft, Consumer<Double> controlFrontRight,
+			Consumer<Double> controlRearLeft, Consumer<Double> controlRearRight) {
+		super(speed -> {
+			controlFrontLeft.accept(speed);
+			controlRearLeft.accept(speed);
+		}, speed -> {
+			controlFrontRight.accept(speed);
+			controlRearRight.accept(speed);
+		});
+		this.controlFrontLeft = controlFrontLeft;
+		this.controlFrontRight = controlFrontRight;
+		this.controlRearLeft = controlRearLeft;
+		this.controlRearRight = controlRearRight;
+	}
+
+	/**
+	 * Moves the drivetrain in any direction while turning it. Each wheel gets
+	 * the sum of the speeds it needs for each movement. If any of these is out
+	 * of the range of -1 to 1, all of them are divided by the largest one's
+	 * absolute value, keeping the direction of movement.
+	 * 
+	 * @param speedY
+	 *            the speed to move forward with. Positive values go forwards.
+	 * @param speedX
+	 *            the speed to move sideways with. Positive values go right.
+	 * @param rotate
+	 *            the speed to turn with. Positive values turn left.
+	 */
+	public void mecanumDrive(double speedY, double speedX, double rotate) {
+		double frontLeft = speedY + speedX - rotate;
+		double frontRight = speedY - speedX + rotate;
+		double rearLeft = speedY - speedX - rotate;
+		double rearRight = speedY + speedX + rotate;
+		double scale = Math.max(1, Math.max(Math.max(Math.abs(frontLeft), Math.abs(frontRight)),
+				Math.max(Math.abs(rearLeft), Math.abs(rearRight))));
+		controlFrontLeft.accept(frontLeft / scale);
+		controlFrontRight.accept(frontRight / scale);
+		controlRearLeft.accept(rearLeft / scale);
+		controlRearRight.accept(rearRight / scale);
+	}
+
+	/**
+	 * Moves the drivetrain relative to the field instead of relative to itself,
+	 * while turning it. The Y speed moves the drivetrain away from where it
+	 * faced when its heading was 0, and the X speed moves it to that direction's
+	 * right, whichever way the drivetrain is facing now.
+	 * 
+	 * <br>
+	 * <br>
+	 * The speeds are rotated by the heading using a {@link FieldRotation} and
+	 * then given to {@link #mecanumDrive(double, double, double)}.
+	 * 
+	 * @param speedY
+	 *            the speed to move away from the driver with
+	 * @param speedX
+	 *            the speed to move to the driver's right with
+	 * @param rotate
+	 *            the speed to turn with. Positive values turn left.
+	 * @param heading
+	 *            the heading of the drivetrain in degrees, positive
+	 *            counter-clockwise. Most FRC gyros are positive clockwise, so
+	 *            their angle should be negated.
+	 */
+	public void fieldOrientedDrive(double speedY, double speedX, double rotate, double heading) {
+		fieldRotation.setHeading(heading);
+		mecanumDrive(fieldRotation.rotateY(speedY, speedX), fieldRotation.rotateX(speedY, speedX), rotate);
+	}
+}
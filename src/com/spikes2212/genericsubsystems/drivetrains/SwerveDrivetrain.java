@@ -0,0 +1,142 @@
+package com.spikes2212.genericsubsystems.drivetrains;
+
+import com.spikes2212.genericsubsystems.utils.FieldRotation;
+
+import edu.wpi.first.wpilibj.command.Command;
+import edu.wpi.first.wpilibj.command.Subsystem;
+
+/**
+ * This class represents a type of Drivetrain with any amount of wheels, each
+ * of which can be driven and steered independently, allowing it to move in any
+ * direction while turning.
+ * 
+ * <br>
+ * <br>
+ * Every call to {@link #swerveDrive(double, double, double)} computes the speed
+ * and angle of each {@link SwerveModule} from its position, using arrays made
+ * when this drivetrain is constructed.
+ * 
+ * @see SwerveModule
+ */
+public class SwerveDrivetrain extends Subsystem {
+
+	protected final SwerveModule[] modules;
+	private final double[] speeds;
+	private final double[] angles;
+	private final double maxRadius;
+
+	private final FieldRotation fieldRotation = new FieldRotation();
+
+	/**
+	 * This constructs a new {@link SwerveDrivetrain} drivetrain.
+	 * 
+	 * @param modules
+	 *            the {@link SwerveModule}s of the drivetrain
+	 * 
+	 * @throws IllegalArgumentException
+	 *             when no modules are given
+	 */
+	public SwerveDrivetrain(SwerveModule... modules) {
+		if (modules.length < 1) {
+			throw new IllegalArgumentException("Cannot construct SwerveDrivetrain without modules");
+		}
+		this.modules = modules.clone();
+		this.speeds = new double[modules.length];
+		this.angles = new double[modules.length];
+		double radius = 0;
+		for (SwerveModule module : modules) {
+			radius = Math.max(radius, Math.hypot(module.getPositionX(), module.getPositionY()));
+		}
+		this.maxRadius = radius;
+	}
+
+	/**
+	 * Moves the drivetrain in any direction while turning it. A rotation speed
+	 * of 1 drives the wheel furthest from the center at full speed. If any
+	 * wheel's speed is more than 1, all of them are divided by the largest
+	 * speed, keeping the direction of movement.
+	 * 
+	 * <br>
+	 * <br>
+	 * A wheel that shouldn't move is stopped where it is pointing, instead of
+	 * being steered back to 0.
+	 * 
+	 * @param speedY
+	 *            the speed to move forward with. Positive values go forwards.
+	 * @param speedX
+	 *            the speed to move sideways with. Positive values go right.
+	 * @param rotate
+	 *            the speed to turn with. Positive values turn left.
+	 */
+	public void swerveDrive(double speedY, double speedX, double rotate) {
+		double turnRate = maxRadius > 0 ? rotate / maxRadius : 0;
+		double maxSpeed = 1;
+		for (int i = 0; i < modules.length; i++) {
+			double moduleX = speedX - turnRate * modules[i].getPositionY();
+			double moduleY = speedY + turnRate * modules[i].getPositionX();
+			speeds[i] = Math.hypot(moduleX, moduleY);
+			angles[i] = Math.toDegrees(Math.atan2(-moduleX, moduleY));
+			maxSpeed = Math.max(maxSpeed, speeds[i]);
+		}
+		for (int i = 0; i < modules.length; i++) {
+			if (speeds[i] == 0) {
+				modules[i].stop();
+			} else {
+				modules[i].set(speeds[i] / maxSpeed, angles[i]);
+			}
+		}
+	}
+
+	/**
+	 * Moves the drivetrain relative to the field instead of relative to itself,
+	 * while turning it. The Y speed moves the drivetrain away from where it
+	 * faced when its heading was 0, and the X speed moves it to that direction's
+	 * right, whichever way the drivetrain is facing now.
+	 * 
+	 * <br>
+	 * <br>
+	 * The speeds are rotated by the heading using a {@link FieldRotation} and
+	 * then given to {@link #swerveDrive(double, double, double)}.
+	 * 
+	 * @param speedY
+	 *            the speed to move away from the driver with
+	 * @param speedX
+	 *            the speed to move to the driver's right with
+	 * @param rotate
+	 *            the speed to turn with. Positive values turn left.
+	 * @param heading
+	 *            the heading of the drivetrain in degrees, positive
+	 *            counter-clockwise. Most FRC gyros are positive clockwise, so
+	 *            their angle should be negated.
+	 */
+	public void fieldOrientedDrive(double speedY, double speedX, double rotate, double heading) {
+		fieldRotation.setHeading(heading);
+		swerveDrive(fieldRotation.rotateY(speedY, speedX), fieldRotation.rotateX(speedY, speedX), rotate);
+	}
+
+	/**
+	 * Stops this drivetrain, leaving all of the wheels pointing where they are.
+	 */
+	public void stop() {
+		for (SwerveModule module : modules) {
+			module.stop();
+		}
+	}
+
+	/**
+	 * Sets the default
+	 * <a href="http://first.wpi.edu/FRC/roborio/release/docs/java/">command</a>.
+	 * If this is not called or is called with null, then there will be no default
+	 * command for the subsystem.
+	 *
+	 * @param defaultCommand
+	 *            the default command (or null if there should be none)
+	 */
+	public void setDefaultCommand(Command defaultCommand) {
+		super.setDefaultCommand(defaultCommand);
+	}
+
+	@Override
+	protected void initDefaultCommand() {
+	}
+}
@@ -0,0 +1,108 @@
+package com.spikes2212.genericsubsystems.drivetrains;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * This class represents one wheel of a {@link SwerveDrivetrain}, which can be
+ * driven and steered to any angle independently.
+ * 
+ * <br>
+ * <br>
+ * The steering is controlled by giving the angle the wheel should point at to
+ * a {@link Consumer}, usually the setpoint of a PID loop on the steering motor.
+ * Angles are in degrees, 0 pointing forward and positive counter-clockwise.
+ * The angle given is the one closest to the current angle, so it may be
+ * outside of the range of -180 to 180, and the PID loop should not be
+ * continuous.
+ * 
+ * <br>
+ * <br>
+ * A wheel never steers more than 90 degrees at once: when the angle asked for
+ * is further than that, the wheel steers to the opposite angle and drives in
+ * reverse instead.
+ * 
+ * @see SwerveDrivetrain
+ */
+public class SwerveModule {
+
+	protected final Consumer<Double> controlSpeed;
+	protected final Consumer<Double> controlAngle;
+	protected final Supplier<Double> angleSupplier;
+	protected final double positionX;
+	protected final double positionY;
+
+	/**
+	 * This constructs a new {@link SwerveModule}.
+	 * 
+	 * @param controlSpeed
+	 *            the component controlling the wheel's speed
+	 * @param controlAngle
+	 *            the component steering the wheel to a given angle, in degrees
+	 * @param angleSupplier
+	 *            a {@link Supplier} supplying the current angle of the wheel, in
+	 *            degrees
+	 * @param positionX
+	 *            the distance of the wheel to the right of the center of the
+	 *            robot
+	 * @param positionY
+	 *            the distance of the wheel forward of the center of the robot
+	 */
+	public SwerveModule(Consumer<Double> controlSpeed, Consumer<Double> controlAngle, Supplier<Double> angleSupplier,
+			double positionX, double positionY) {
+		this.controlSpeed = controlSpeed;
+		this.controlAngle = controlAngle;
+		this.angleSupplier = angleSupplier;
+		this.positionX = positionX;
+		this.positionY = positionY;
+	}
+
+	/**
+	 * Drives the wheel with the given speed at the given angle, by steering it
+	 * to the given angle or its opposite, whichever is closer.
+	 * 
+	 * @param speed
+	 *            the speed to drive the wheel with
+	 * @param angle
+	 *            the angle the wheel should drive at, in degrees
+	 */
+	public void set(double speed, double angle) {
+		double currentAngle = angleSupplier.get();
+		double error = Math.IEEEremainder(angle - currentAngle, 360);
+		if (Math.abs(error) > 90) {
+			error = Math.IEEEremainder(error + 180, 360);
+			speed = -speed;
+		}
+		controlAngle.accept(currentAngle + error);
+		controlSpeed.accept(speed);
+	}
+
+	/**
+	 * Stops the wheel's driving, leaving it pointing where it is.
+	 */
+	public void stop() {
+		controlSpeed.accept(0.0);
+	}
+
+	/**
+	 * @return the current angle of the wheel, in degrees.
+	 */
+	public double getAngle() {
+		return angleSupplier.get();
+	}
+
+	/**
+	 * @return the distance of the wheel to the right of the center of the
+	 *         robot.
+	 */
+	public double getPositionX() {
+		return positionX;
+	}
+
+	/**
+	 * @return the distance of the wheel forward of the center of the robot.
+	 */
+	public double getPositionY() {
+		return positionY;
+	}
+}
@@ -72,6 +72,49 @@ public class TankDrivetrain extends Subsystem {
 		this.tankDrive(leftSpeed, rightSpeed);
 	}
 
+	/**
+	 * Moves both sides of this drivetrain by the given speeds for each side,
+	 * keeping the ratio between the speeds. If one of the speeds is out of the
+	 * range of -1 to 1, both speeds are divided by the larger one's absolute
+	 * value, instead of being cut off separately.
+	 * 
+	 * @param speedLeft
+	 *            the speed to set to the left side. Positive values move this side
+	 *            forward.
+	 * @param speedRight
+	 *            the speed to set to the right side. Positive values move this side
+	 *            forward.
+	 */
+	public void desaturatedTankDrive(double speedLeft, double speedRight) {
+		double scale = Math.max(1, Math.max(Math.abs(speedLeft), Math.abs(speedRight)));
+		tankDrive(speedLeft / scale, speedRight / scale);
+	}
+
+	/**
+	 * Moves this drivetrain by a linear speed and the curvature of the path it
+	 * should take. Unlike {@link #arcadeDrive(double, double)}, the turning is
+	 * proportional to the speed, so the robot turns in the same radius at any
+	 * speed and keeps its turning authority at high speeds.
+	 * 
+	 * <br>
+	 * <br>
+	 * Since a curvature can't turn the robot in place, the quick turn mode uses
+	 * the curvature as a rotational speed, like arcade drive does.
+	 * 
+	 * @param speed
+	 *            the speed to move with. Positive values go forwards.
+	 * @param curvature
+	 *            the curvature of the path, between -1 and 1. Positive values
+	 *            turn left.
+	 * @param quickTurn
+	 *            true to turn in place, using the curvature as the rotational
+	 *            speed
+	 */
+	public void curvatureDrive(double speed, double curvature, boolean quickTurn) {
+		double rotate = quickTurn ? curvature : Math.abs(speed) * curvature;
+		desaturatedTankDrive(speed - rotate, speed + rotate);
+	}
+
 	/**
 	 * Moves the left side of this drivetrain by a given speed.
 	 *
@@ -3,17 +3,18 @@ package com.spikes2212.genericsubsystems.drivetrains.commands;
 import java.util.function.Supplier;
 
 import com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain;
-
-import edu.wpi.first.wpilibj.command.Command;
+import com.spikes2212.genericsubsystems.utils.HeadingHold;
+import com.spikes2212.utils.ProfiledCommand;
 
 /**
  * this command moves a {@link TankDrivetrain} by linear and rotational speeds, using
  * the arcade control method written by WPILIB.
  */
-public class DriveArcade extends Command {
+public class DriveArcade extends ProfiledCommand {
 	protected final TankDrivetrain tankDrivetrain;
 	protected final Supplier<Double> moveValueSupplier;
 	protected final Supplier<Double> rotateValueSupplier;
+	protected HeadingHold headingHold;
 
 	/**
 	 * This constructs a new {@link DriveArcade} command that moves the given
@@ -52,24 +53,43 @@ public class DriveArcade extends Command {
 		this.rotateValueSupplier = rotateValueSupplier;
 	}
 
+	/**
+	 * Sets the {@link HeadingHold} used to keep the drivetrain facing the same
+	 * way while the driver isn't turning it, so it doesn't drift because of the
+	 * differences between its sides.
+	 *
+	 * @param headingHold
+	 *            the {@link HeadingHold} to use, or null to drive without it.
+	 *            Its heading should be positive counter-clockwise.
+	 */
+	public void setHeadingHold(HeadingHold headingHold) {
+		this.headingHold = headingHold;
+	}
+
 	@Override
-	protected void initialize() {
-		// TODO Auto-generated method stub
+	protected void doInitialize() {
+		if (headingHold != null) {
+			headingHold.reset();
+		}
 	}
 
     @Override
-    protected void execute() {
-        tankDrivetrain.arcadeDrive(moveValueSupplier.get(), rotateValueSupplier.get());
+    protected void doExecute() {
+        double rotateValue = rotateValueSupplier.get();
+        if (headingHold != null) {
+            rotateValue = headingHold.calculate(rotateValue);
+        }
+        tankDrivetrain.arcadeDrive(moveValueSupplier.get(), rotateValue);
     }
 
 	@Override
-	protected boolean isFinished() {
+	protected boolean doIsFinished() {
 		// TODO Auto-generated method stub
 		return isTimedOut();
 	}
 
 	// Called once after isFinished returns true
-	protected void end() {
+	protected void doEnd() {
 		tankDrivetrain.tankDrive(0, 0);
 	}
 
@@ -3,17 +3,15 @@ package com.spikes2212.genericsubsystems.drivetrains.commands;
 import java.util.function.Supplier;
 
 import com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain;
+import com.spikes2212.utils.PIDLoop;
 import com.spikes2212.utils.PIDSettings;
+import com.spikes2212.utils.ProfiledCommand;
 
-import edu.wpi.first.wpilibj.PIDController;
 import edu.wpi.first.wpilibj.PIDSource;
-import edu.wpi.first.wpilibj.command.Command;
 
 /**
- * This command turns an instance of {@link TankDrivetrain} with wpilib's
- * <a href =
- * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
- * using the output from <a href=
+ * This command turns an instance of {@link TankDrivetrain} with a
+ * {@link PIDLoop} using the output from <a href=
  * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSources</a>.
  * and moves it forward using {@link Supplier} to supply the movement speed to
  * the {@link TankDrivetrain#arcadeDrive}.
@@ -22,11 +20,11 @@ import edu.wpi.first.wpilibj.command.Command;
  * instance of {@link TankDrivetrain} move straight by giving its starting state
  * as the setpoint.
  *
- * @see PIDController
+ * @see PIDLoop
  * @see TankDrivetrain
  * @author Simon "C" Kharmatsky
  */
-public class DriveArcadeWithPID extends Command {
+public class DriveArcadeWithPID extends ProfiledCommand {
 
 	protected TankDrivetrain drivetrain;
 	protected PIDSource PIDSource;
@@ -37,7 +35,7 @@ public class DriveArcadeWithPID extends Command {
 
 	protected double outputRange;
 
-	protected PIDController rotationController;
+	protected PIDLoop rotationController;
 
 	/**
 	 * This constructs a new {@link DriveArcadeWithPID} using <a href=
@@ -193,8 +191,8 @@ public class DriveArcadeWithPID extends Command {
 	}
 
 	@Override
-	protected void initialize() {
-		this.rotationController = new PIDController(PIDSettings.getKP(), PIDSettings.getKI(), PIDSettings.getKD(),
+	protected void doInitialize() {
+		this.rotationController = new PIDLoop(PIDSettings.getKP(), PIDSettings.getKI(), PIDSettings.getKD(),
 				PIDSource, (rotate) -> drivetrain.arcadeDrive(movementSupplier.get(), rotate / (outputRange / 2)));
 		rotationController.setAbsoluteTolerance(PIDSettings.getTolerance());
 		rotationController.setSetpoint(setpointSupplier.get());
@@ -203,19 +201,19 @@ public class DriveArcadeWithPID extends Command {
 	}
 
 	@Override
-	protected void execute() {
+	protected void doExecute() {
 		double newSetpoint = setpointSupplier.get();
 		if (rotationController.getSetpoint() != newSetpoint)
 			rotationController.setSetpoint(newSetpoint);
 	}
 
 	@Override
-	protected boolean isFinished() {
+	protected boolean doIsFinished() {
 		return isTimedOut() || isFinishedSupplier.get();
 	}
 
 	@Override
-	protected void end() {
+	protected void doEnd() {
 		rotationController.disable();
 		drivetrain.stop();
 	}
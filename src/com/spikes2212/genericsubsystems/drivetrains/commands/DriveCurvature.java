@@ -0,0 +1,88 @@
+package com.spikes2212.genericsubsystems.drivetrains.commands;
+
+import java.util.function.Supplier;
+
+import com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain;
+import com.spikes2212.utils.ProfiledCommand;
+
+/**
+ * This command moves a {@link TankDrivetrain} by a linear speed and the
+ * curvature of the path it should take, using
+ * {@link TankDrivetrain#curvatureDrive(double, double, boolean)}.
+ * 
+ * @see TankDrivetrain#curvatureDrive(double, double, boolean)
+ * @see DriveArcade
+ */
+public class DriveCurvature extends ProfiledCommand {
+	protected final TankDrivetrain tankDrivetrain;
+	protected final Supplier<Double> speedSupplier;
+	protected final Supplier<Double> curvatureSupplier;
+	protected final Supplier<Boolean> quickTurnSupplier;
+
+	/**
+	 * This constructs a new {@link DriveCurvature} command that moves the given
+	 * {@link TankDrivetrain} according to a constant speed and curvature.
+	 *
+	 * @param drivetrain
+	 *            the tank drivetrain this command operates on.
+	 * @param speed
+	 *            the speed to move with. Positive values go forwards.
+	 * @param curvature
+	 *            the curvature of the path. Positive values turn left.
+	 */
+	public DriveCurvature(TankDrivetrain drivetrain, double speed, double curvature) {
+		this(drivetrain, () -> speed, () -> curvature, () -> false);
+	}
+
+	/**
+	 * This constructs a new {@link DriveCurvature} command that moves the given
+	 * {@link TankDrivetrain} according to values from {@link Supplier}s for the
+	 * speed, the curvature and the quick turn mode.
+	 *
+	 * @param drivetrain
+	 *            the tank drivetrain this command operates on.
+	 * @param speedSupplier
+	 *            the double {@link Supplier} supplying the speed to move with.
+	 *            Positive values go forwards.
+	 * @param curvatureSupplier
+	 *            the double {@link Supplier} supplying the curvature of the
+	 *            path. Positive values turn left.
+	 * @param quickTurnSupplier
+	 *            the boolean {@link Supplier} supplying whether to turn in
+	 *            place, using the curvature as the rotational speed. Usually a
+	 *            button.
+	 */
+	public DriveCurvature(TankDrivetrain drivetrain, Supplier<Double> speedSupplier,
+			Supplier<Double> curvatureSupplier, Supplier<Boolean> quickTurnSupplier) {
+		requires(drivetrain);
+		this.tankDrivetrain = drivetrain;
+		this.speedSupplier = speedSupplier;
+		this.curvatureSupplier = curvatureSupplier;
+		this.quickTurnSupplier = quickTurnSupplier;
+	}
+
+	@Override
+	protected void doInitialize() {
+	}
+
+	@Override
+	protected void doExecute() {
+		tankDrivetrain.curvatureDrive(speedSupplier.get(), curvatureSupplier.get(), quickTurnSupplier.get());
+	}
+
+	@Override
+	protected boolean doIsFinished() {
+		return isTimedOut();
+	}
+
+	// Called once after isFinished returns true
+	protected void doEnd() {
+		tankDrivetrain.stop();
+	}
+
+	// Called when another command which requires one or more of the same
+	// subsystems is scheduled to run
+	protected void interrupted() {
+		end();
+	}
+}
@@ -3,13 +3,12 @@ package com.spikes2212.genericsubsystems.drivetrains.commands;
 import java.util.function.Supplier;
 
 import com.spikes2212.genericsubsystems.drivetrains.HolonomicDrivetrain;
-
-import edu.wpi.first.wpilibj.command.Command;
+import com.spikes2212.utils.ProfiledCommand;
 
 /**
  * This command moves a {@link HolonomicDrivetrain} using X and Y axes speeds.
  */
-public class DriveHolonomic extends Command {
+public class DriveHolonomic extends ProfiledCommand {
 	protected final HolonomicDrivetrain holonomicDrivetrain;
 	protected final Supplier<Double> speedYSupplier, speedXSupplier;
 
@@ -59,22 +58,22 @@ public class DriveHolonomic extends Command {
 	}
 
 	// Called just before this Command runs the first time
-	protected void initialize() {
+	protected void doInitialize() {
 	}
 
 	// Called repeatedly when this Command is scheduled to run
-	protected void execute() {
+	protected void doExecute() {
 		holonomicDrivetrain.holonomicDrive(speedYSupplier.get(), speedXSupplier.get());
 
 	}
 
 	// Make this return true when this Command no longer needs to run execute()
-	protected boolean isFinished() {
+	protected boolean doIsFinished() {
 		return isTimedOut();
 	}
 
 	// Called once after isFinished returns true
-	protected void end() {
+	protected void doEnd() {
 		holonomicDrivetrain.stop();
 	}
 
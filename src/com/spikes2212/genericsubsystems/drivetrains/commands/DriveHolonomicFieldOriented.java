@@ -0,0 +1,103 @@
+package com.spikes2212.genericsubsystems.drivetrains.commands;
+
+import java.util.function.Supplier;
+
+import com.spikes2212.genericsubsystems.drivetrains.HolonomicDrivetrain;
+import com.spikes2212.genericsubsystems.utils.HeadingHold;
+import com.spikes2212.utils.ProfiledCommand;
+
+/**
+ * This command moves a {@link HolonomicDrivetrain} relative to the field,
+ * using X and Y axes speeds and a rotation speed, so pushing the joystick away
+ * from the driver always moves the drivetrain away from the driver, whichever
+ * way it is facing.
+ *
+ * <br>
+ * <br>
+ * A {@link HeadingHold} can be set using {@link #setHeadingHold(HeadingHold)}
+ * to keep the drivetrain facing the same way while it isn't being turned.
+ *
+ * @see HolonomicDrivetrain#fieldOrientedDrive(double, double, double, double)
+ */
+public class DriveHolonomicFieldOriented extends ProfiledCommand {
+	protected final HolonomicDrivetrain holonomicDrivetrain;
+	protected final Supplier<Double> speedYSupplier, speedXSupplier, rotateSupplier;
+	protected final Supplier<Double> headingSupplier;
+	protected HeadingHold headingHold;
+
+	/**
+	 * This constructs a new {@link DriveHolonomicFieldOriented} command that
+	 * moves the given {@link HolonomicDrivetrain} according to speed values from
+	 * Double {@link Supplier}s.
+	 *
+	 * @param drivetrain
+	 *            the holonomic drivetrain this command operates on.
+	 * @param speedYSupplier
+	 *            the double {@link Supplier} supplying the speed to move away
+	 *            from the driver with.
+	 * @param speedXSupplier
+	 *            the double {@link Supplier} supplying the speed to move to the
+	 *            driver's right with.
+	 * @param rotateSupplier
+	 *            the double {@link Supplier} supplying the speed to turn with.
+	 *            Positive values turn left.
+	 * @param headingSupplier
+	 *            the double {@link Supplier} supplying the heading of the
+	 *            drivetrain in degrees, positive counter-clockwise.
+	 */
+	public DriveHolonomicFieldOriented(HolonomicDrivetrain drivetrain, Supplier<Double> speedYSupplier,
+			Supplier<Double> speedXSupplier, Supplier<Double> rotateSupplier, Supplier<Double> headingSupplier) {
+		requires(drivetrain);
+		this.holonomicDrivetrain = drivetrain;
+		this.speedYSupplier = speedYSupplier;
+		this.speedXSupplier = speedXSupplier;
+		this.rotateSupplier = rotateSupplier;
+		this.headingSupplier = headingSupplier;
+	}
+
+	/**
+	 * Sets the {@link HeadingHold} used to keep the drivetrain facing the same
+	 * way while the rotation speed is within its deadband.
+	 *
+	 * @param headingHold
+	 *            the {@link HeadingHold} to use, or null to turn only by the
+	 *            rotation speed.
+	 */
+	public void setHeadingHold(HeadingHold headingHold) {
+		this.headingHold = headingHold;
+	}
+
+	// Called just before this Command runs the first time
+	protected void doInitialize() {
+		if (headingHold != null) {
+			headingHold.reset();
+		}
+	}
+
+	// Called repeatedly when this Command is scheduled to run
+	protected void doExecute() {
+		double rotate = rotateSupplier.get();
+		if (headingHold != null) {
+			rotate = headingHold.calculate(rotate);
+		}
+		holonomicDrivetrain.fieldOrientedDrive(speedYSupplier.get(), speedXSupplier.get(), rotate,
+				headingSupplier.get());
+	}
+
+	// Make this return true when this Command no longer needs to run execute()
+	protected boolean doIsFinished() {
+		return isTimedOut();
+	}
+
+	// Called once after isFinished returns true
+	protected void doEnd() {
+		holonomicDrivetrain.stop();
+		holonomicDrivetrain.setX(0);
+	}
+
+	// Called when another command which requires one or more of the same
+	// subsystems is scheduled to run
+	protected void interrupted() {
+		end();
+	}
+}
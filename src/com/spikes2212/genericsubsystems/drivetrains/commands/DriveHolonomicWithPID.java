@@ -3,16 +3,19 @@ package com.spikes2212.genericsubsystems.drivetrains.commands;
 import java.util.function.Supplier;
 
 import com.spikes2212.genericsubsystems.drivetrains.HolonomicDrivetrain;
+import com.spikes2212.utils.Clock;
+import com.spikes2212.utils.ControlLoop;
+import com.spikes2212.utils.Feedforward;
+import com.spikes2212.utils.PIDLoop;
 import com.spikes2212.utils.PIDSettings;
+import com.spikes2212.utils.ProfiledCommand;
+import com.spikes2212.utils.SettleDetector;
+import com.spikes2212.utils.TrapezoidProfile;
 
-import edu.wpi.first.wpilibj.PIDController;
 import edu.wpi.first.wpilibj.PIDSource;
-import edu.wpi.first.wpilibj.Timer;
-import edu.wpi.first.wpilibj.command.Command;
 
 /**
- * This command moves a {@link HolonomicDrivetrain} using wpilib's <a href=
- * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>.
+ * This command moves a {@link HolonomicDrivetrain} using a {@link PIDLoop}.
  * It also waits a specified amount of time after the
  * error is within the given tolerance before stopping the PID loop to
  * make sure the {@link HolonomicDrivetrain} doesn't go past the setpoint.
@@ -24,22 +27,58 @@ import edu.wpi.first.wpilibj.command.Command;
  * the <a href=
  * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSources</a>.
  *
+ * <br>
+ * <br>
+ * All of the loops are calculated together by one task on the
+ * {@link ControlLoop}, and their outputs are given to
+ * {@link HolonomicDrivetrain#holonomicArcadeDrive(double, double, double)},
+ * which desaturates them together. The Y output therefore always moves the
+ * left and right sides of the {@link HolonomicDrivetrain}.
+ *
+ * <br>
+ * <br>
+ * A third PID loop can be added using
+ * {@link #setHeadingControl(PIDSource, Supplier, PIDSettings)} to keep the
+ * {@link HolonomicDrivetrain} facing a given heading while it moves. Its
+ * output is mixed with the Y output as the rotation of the sides.
+ *
+ * <br>
+ * <br>
+ * Using {@link #setCoordinatedProfile(double, double)}, the
+ * {@link HolonomicDrivetrain} can instead move in a straight line to the
+ * setpoints, with both axes following one {@link TrapezoidProfile}. Given a
+ * {@link Feedforward} for each axis using
+ * {@link #setCoordinatedProfile(double, double, Feedforward, Feedforward)},
+ * the profile's velocity is also added to the outputs, so the axes don't lag
+ * behind the profile and arrive together.
+ *
  * @author Omri "Riki" Cohen
  * @see HolonomicDrivetrain
  * @see <a href=
  *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSource</a>
- * @see <a href=
- *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+ * @see PIDLoop
  */
-public class DriveHolonomicWithPID extends Command {
+public class DriveHolonomicWithPID extends ProfiledCommand {
 	protected final HolonomicDrivetrain holonomicDrivetrain;
 	protected final Supplier<Double> XSetpoint;
 	protected final Supplier<Double> YSetpoint;
 	protected final PIDSettings XPIDSettings;
 	protected final PIDSettings YPIDSettings;
-	protected PIDController XMovmentControl;
-	protected PIDController YMovmentControl;
-	protected double lastTimeNotOnTarget;
+	protected PIDLoop XMovmentControl;
+	protected PIDLoop YMovmentControl;
+	protected final SettleDetector XSettleDetector = new SettleDetector(0, 0);
+	protected final SettleDetector YSettleDetector = new SettleDetector(0, 0);
+	protected final SettleDetector headingSettleDetector = new SettleDetector(0, 0);
+	protected PIDSource headingSource;
+	protected Supplier<Double> headingSetpoint;
+	protected PIDSettings headingPIDSettings;
+	protected PIDLoop headingControl;
+	protected volatile double XOutput, YOutput, headingOutput;
+	protected TrapezoidProfile coordinatedProfile;
+	protected Feedforward XFeedforward, YFeedforward;
+	private double startX, startY, goalX, goalY, pathLength, profileStartTime;
+	private final Runnable controlTask = this::control;
+	private boolean controlling = false;
 
 	/**
 	 * The <a href=
@@ -80,14 +119,13 @@ public class DriveHolonomicWithPID extends Command {
 	 *            a {@link Supplier} supplying the target point of this
 	 *            command's Y axis
 	 * @param XPIDSettings
-	 *            the {@link PIDSettings} this command's X axis PIDController
+	 *            the {@link PIDSettings} this command's X axis PID loop
 	 *            needs.
 	 * @param YPIDSettings
-	 *            the {@link PIDSettings} this command's Y axis PIDController
+	 *            the {@link PIDSettings} this command's Y axis PID loop
 	 *            needs.
 	 * 
-	 * @see <a href=
-	 *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * @see PIDLoop
 	 */
 	public DriveHolonomicWithPID(HolonomicDrivetrain drivetrain, PIDSource XSource, PIDSource YSource,
 			Supplier<Double> XSetpoint, Supplier<Double> YSetpoint, PIDSettings XPIDSettings,
@@ -123,14 +161,13 @@ public class DriveHolonomicWithPID extends Command {
 	 * @param YSetpoint
 	 *            the target point of this command's Y axis
 	 * @param XPIDSettings
-	 *            the {@link PIDSettings} this command's X axis PIDController
+	 *            the {@link PIDSettings} this command's X axis PID loop
 	 *            needs.
 	 * @param YPIDSettings
-	 *            the {@link PIDSettings} this command's Y axis PIDController
+	 *            the {@link PIDSettings} this command's Y axis PID loop
 	 *            needs.
 	 * 
-	 * @see <a href=
-	 *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * @see PIDLoop
 	 */
 	public DriveHolonomicWithPID(HolonomicDrivetrain drivetrain, PIDSource XSource, PIDSource YSource, double XSetpoint,
 			double YSetpoint, PIDSettings XPIDSettings, PIDSettings YPIDSettings) {
@@ -156,14 +193,13 @@ public class DriveHolonomicWithPID extends Command {
 	 * @param setpoint
 	 *            the target point of this command
 	 * @param XPIDSettings
-	 *            the {@link PIDSettings} this command's X axis PIDController
+	 *            the {@link PIDSettings} this command's X axis PID loop
 	 *            needs.
 	 * @param YPIDSettings
-	 *            the {@link PIDSettings} this command's Y axis PIDController
+	 *            the {@link PIDSettings} this command's Y axis PID loop
 	 *            needs.
 	 * 
-	 * @see <a href=
-	 *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * @see PIDLoop
 	 */
 	public DriveHolonomicWithPID(HolonomicDrivetrain drivetrain, PIDSource XSource, PIDSource YSource, double setpoint,
 			PIDSettings XPIDSettings, PIDSettings YPIDSettings) {
@@ -189,14 +225,13 @@ public class DriveHolonomicWithPID extends Command {
 	 * @param setpoint
 	 *            a {@link Supplier} supplying the target point of this command
 	 * @param XPIDSettings
-	 *            the {@link PIDSettings} this command's X axis PIDController
+	 *            the {@link PIDSettings} this command's X axis PID loop
 	 *            needs.
 	 * @param YPIDSettings
-	 *            the {@link PIDSettings} this command's Y axis PIDController
+	 *            the {@link PIDSettings} this command's Y axis PID loop
 	 *            needs.
 	 * 
-	 * @see <a href=
-	 *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * @see PIDLoop
 	 */
 	public DriveHolonomicWithPID(HolonomicDrivetrain drivetrain, PIDSource XSource, PIDSource YSource,
 			Supplier<Double> setpoint, PIDSettings XPIDSettings, PIDSettings YPIDSettings) {
@@ -204,9 +239,8 @@ public class DriveHolonomicWithPID extends Command {
 	}
 
 	/**
-	 * Gets the {@link PIDSettings} the X axis <a href=
-	 * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
-	 * uses for this command.
+	 * Gets the {@link PIDSettings} the X axis {@link PIDLoop} uses
+	 * for this command.
 	 * 
 	 * @return The PIDSetting object
 	 */
@@ -215,9 +249,8 @@ public class DriveHolonomicWithPID extends Command {
 	}
 
 	/**
-	 * Gets the {@link PIDSettings} the Y axis <a href=
-	 * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
-	 * uses for this command.
+	 * Gets the {@link PIDSettings} the Y axis {@link PIDLoop} uses
+	 * for this command.
 	 * 
 	 * @return The PIDSetting object
 	 */
@@ -243,8 +276,7 @@ public class DriveHolonomicWithPID extends Command {
 	 * @param tolerance
 	 *            the tolerance in the same units as the {@link #source}.
 	 * 
-	 * @see <a href=
-	 *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * @see PIDLoop
 	 */
 	public void setTolerance(double tolerance) {
 		XPIDSettings.setTolerance(tolerance);
@@ -271,46 +303,221 @@ public class DriveHolonomicWithPID extends Command {
 		XPIDSettings.setWaitTime(waitTime);
 	}
 
+	/**
+	 * Adds a PID loop that turns the {@link HolonomicDrivetrain} to the given
+	 * heading while it moves. This should be called before the command starts.
+	 *
+	 * <br>
+	 * <br>
+	 * Positive outputs of the loop turn the drivetrain left, so the source
+	 * should increase counter-clockwise. The command only ends once the heading
+	 * is also within its tolerance.
+	 *
+	 * @param headingSource
+	 *            the <a href=
+	 *            "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSource<a>
+	 *            this command uses to get feedback for the heading's PID Loop.
+	 * @param headingSetpoint
+	 *            a {@link Supplier} supplying the heading to face
+	 * @param headingPIDSettings
+	 *            the {@link PIDSettings} this command's heading PID loop
+	 *            needs.
+	 */
+	public void setHeadingControl(PIDSource headingSource, Supplier<Double> headingSetpoint,
+			PIDSettings headingPIDSettings) {
+		this.headingSource = headingSource;
+		this.headingSetpoint = headingSetpoint;
+		this.headingPIDSettings = headingPIDSettings;
+	}
+
+	/**
+	 * Gets the {@link PIDSettings} the heading {@link PIDLoop} uses
+	 * for this command.
+	 * 
+	 * @return The PIDSetting object, or null if there is no heading control.
+	 */
+	public PIDSettings getHeadingPIDSetting() {
+		return headingPIDSettings;
+	}
+
+	/**
+	 * Makes the {@link HolonomicDrivetrain} move in a straight line from where
+	 * it starts to the setpoints, instead of moving each axis to its setpoint
+	 * separately. This should be called before the command starts.
+	 *
+	 * <br>
+	 * <br>
+	 * When the command starts, one {@link TrapezoidProfile} is planned for the
+	 * length of the line, and every time the loops are calculated both axes'
+	 * setpoints are moved along the line according to it. Both axes then reach their
+	 * setpoints at the same time, and neither waits for the other. The
+	 * setpoints are only read when the command starts. The command ends once
+	 * the profile is done and both axes are within tolerance.
+	 *
+	 * @param maxVelocity
+	 *            the maximum velocity along the line, in units of the
+	 *            <a href=
+	 *            "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSources<a>
+	 *            per second
+	 * @param maxAcceleration
+	 *            the acceleration along the line, in units of the PIDSources
+	 *            per second squared
+	 */
+	public void setCoordinatedProfile(double maxVelocity, double maxAcceleration) {
+		setCoordinatedProfile(maxVelocity, maxAcceleration, null, null);
+	}
+
+	/**
+	 * Makes the {@link HolonomicDrivetrain} move in a straight line to the
+	 * setpoints like {@link #setCoordinatedProfile(double, double)}, and adds
+	 * the profile's velocity along each axis to that axis' output, as
+	 * calculated by the axis' {@link Feedforward}. The PID loops then only
+	 * correct what the feedforward misses, instead of lagging behind the
+	 * profile. This should be called before the command starts.
+	 *
+	 * @param maxVelocity
+	 *            the maximum velocity along the line, in units of the
+	 *            <a href=
+	 *            "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSources<a>
+	 *            per second
+	 * @param maxAcceleration
+	 *            the acceleration along the line, in units of the PIDSources
+	 *            per second squared
+	 * @param XFeedforward
+	 *            the {@link Feedforward} of the X axis, or null to not add a
+	 *            feedforward to it
+	 * @param YFeedforward
+	 *            the {@link Feedforward} of the Y axis, or null to not add a
+	 *            feedforward to it
+	 */
+	public void setCoordinatedProfile(double maxVelocity, double maxAcceleration, Feedforward XFeedforward,
+			Feedforward YFeedforward) {
+		this.coordinatedProfile = new TrapezoidProfile(maxVelocity, maxAcceleration);
+		this.XFeedforward = XFeedforward;
+		this.YFeedforward = YFeedforward;
+	}
+
 	// Called just before this Command runs the first time
-	protected void initialize() {
-		XMovmentControl = new PIDController(XPIDSettings.getKP(), XPIDSettings.getKI(), XPIDSettings.getKD(), XSource,
-				holonomicDrivetrain::setX);
+	protected void doInitialize() {
+		XOutput = 0;
+		YOutput = 0;
+		headingOutput = 0;
+		XMovmentControl = new PIDLoop(XPIDSettings.getKP(), XPIDSettings.getKI(), XPIDSettings.getKD(), XSource);
 		XMovmentControl.setAbsoluteTolerance(XPIDSettings.getTolerance());
 		XMovmentControl.setSetpoint(this.XSetpoint.get());
 		XMovmentControl.setOutputRange(-1, 1);
-		YMovmentControl = new PIDController(YPIDSettings.getKP(), YPIDSettings.getKI(), YPIDSettings.getKD(), YSource,
-				holonomicDrivetrain::setY);
+		YMovmentControl = new PIDLoop(YPIDSettings.getKP(), YPIDSettings.getKI(), YPIDSettings.getKD(), YSource);
 		YMovmentControl.setAbsoluteTolerance(YPIDSettings.getTolerance());
 		YMovmentControl.setSetpoint(this.YSetpoint.get());
 		YMovmentControl.setOutputRange(-1, 1);
-		XMovmentControl.enable();
-		YMovmentControl.enable();
+		if (headingSource != null) {
+			headingControl = new PIDLoop(headingPIDSettings.getKP(), headingPIDSettings.getKI(),
+					headingPIDSettings.getKD(), headingSource);
+			headingControl.setAbsoluteTolerance(headingPIDSettings.getTolerance());
+			headingControl.setSetpoint(headingSetpoint.get());
+			headingControl.setOutputRange(-1, 1);
+		} else {
+			headingControl = null;
+		}
+		if (coordinatedProfile != null) {
+			startX = XSource.pidGet();
+			startY = YSource.pidGet();
+			goalX = XMovmentControl.getSetpoint();
+			goalY = YMovmentControl.getSetpoint();
+			pathLength = Math.hypot(goalX - startX, goalY - startY);
+			coordinatedProfile.plan(pathLength);
+			profileStartTime = Clock.now();
+			XMovmentControl.setSetpoint(startX);
+			YMovmentControl.setSetpoint(startY);
+		}
+		if (headingControl != null) {
+			resetSettleDetector(headingSettleDetector, headingPIDSettings);
+		}
+		resetSettleDetector(XSettleDetector, XPIDSettings);
+		resetSettleDetector(YSettleDetector, YPIDSettings);
+		synchronized (this) {
+			controlling = true;
+		}
+		ControlLoop.add(controlTask);
+	}
+
+	private static void resetSettleDetector(SettleDetector settleDetector, PIDSettings PIDSettings) {
+		settleDetector.setTolerance(PIDSettings.getTolerance());
+		settleDetector.setWaitTime(PIDSettings.getWaitTime());
+		settleDetector.reset();
+	}
+
+	/**
+	 * Calculates all of the loops together and drives the
+	 * {@link HolonomicDrivetrain} with their outputs. This runs on the
+	 * {@link ControlLoop} every {@link ControlLoop#PERIOD} seconds.
+	 */
+	private synchronized void control() {
+		if (!controlling)
+			return;
+		double XFeedforwardOutput = 0, YFeedforwardOutput = 0;
+		if (coordinatedProfile != null) {
+			double time = Clock.now() - profileStartTime;
+			double position = coordinatedProfile.getPosition(time);
+			double fraction = pathLength > 0 ? position / pathLength : 1;
+			XMovmentControl.setSetpoint(startX + (goalX - startX) * fraction);
+			YMovmentControl.setSetpoint(startY + (goalY - startY) * fraction);
+			if (pathLength > 0) {
+				double velocity = coordinatedProfile.getVelocity(time);
+				if (XFeedforward != null)
+					XFeedforwardOutput = XFeedforward.calculate(velocity * (goalX - startX) / pathLength);
+				if (YFeedforward != null)
+					YFeedforwardOutput = YFeedforward.calculate(velocity * (goalY - startY) / pathLength);
+			}
+		}
+		XOutput = XMovmentControl.calculate() + XFeedforwardOutput;
+		YOutput = YMovmentControl.calculate() + YFeedforwardOutput;
+		headingOutput = headingControl != null ? headingControl.calculate() : 0;
+		holonomicDrivetrain.holonomicArcadeDrive(YOutput, XOutput, headingOutput);
 	}
 
 	// Called repeatedly when this Command is scheduled to run
-	protected void execute() {
-		double newSetPointLeft = XSetpoint.get();
-		double newSetPointRight = YSetpoint.get();
-		if (newSetPointLeft != XMovmentControl.getSetpoint())
-			XMovmentControl.setSetpoint(newSetPointLeft);
-		if (newSetPointRight != YMovmentControl.getSetpoint())
-			YMovmentControl.setSetpoint(newSetPointRight);
+	protected void doExecute() {
+		if (coordinatedProfile == null) {
+			double newSetPointLeft = XSetpoint.get();
+			double newSetPointRight = YSetpoint.get();
+			if (newSetPointLeft != XMovmentControl.getSetpoint())
+				XMovmentControl.setSetpoint(newSetPointLeft);
+			if (newSetPointRight != YMovmentControl.getSetpoint())
+				YMovmentControl.setSetpoint(newSetPointRight);
+		}
+		if (headingControl != null) {
+			double newHeading = headingSetpoint.get();
+			if (newHeading != headingControl.getSetpoint())
+				headingControl.setSetpoint(newHeading);
+		}
 	}
 
 	// Make this return true when this Command no longer needs to run execute()
-	protected boolean isFinished() {
-		if (!XMovmentControl.onTarget() || !YMovmentControl.onTarget()) {
-			lastTimeNotOnTarget = Timer.getFPGATimestamp();
+	protected boolean doIsFinished() {
+		double time = Clock.now();
+		if (coordinatedProfile != null && time - profileStartTime < coordinatedProfile.getDuration()) {
+			// the setpoints are still moving, so nothing has settled yet
+			XSettleDetector.reset();
+			YSettleDetector.reset();
+			headingSettleDetector.reset();
+			return false;
 		}
-		return Timer.getFPGATimestamp() - lastTimeNotOnTarget >= Math.max(YPIDSettings.getWaitTime(),
-				XPIDSettings.getWaitTime());
+		boolean XSettled = XSettleDetector.update(XMovmentControl.getError(), time);
+		boolean YSettled = YSettleDetector.update(YMovmentControl.getError(), time);
+		boolean headingSettled = headingControl == null
+				|| headingSettleDetector.update(headingControl.getError(), time);
+		return XSettled && YSettled && headingSettled;
 	}
 
 	// Called once after isFinished returns true
-	protected void end() {
-		XMovmentControl.disable();
-		YMovmentControl.disable();
-		holonomicDrivetrain.stop();
+	protected void doEnd() {
+		ControlLoop.remove(controlTask);
+		synchronized (this) {
+			controlling = false;
+			holonomicDrivetrain.setX(0);
+			holonomicDrivetrain.stop();
+		}
 	}
 
 	// Called when another command which requires one or more of the same
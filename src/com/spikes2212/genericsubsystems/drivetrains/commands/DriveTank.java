@@ -3,17 +3,18 @@ package com.spikes2212.genericsubsystems.drivetrains.commands;
 import java.util.function.Supplier;
 
 import com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain;
-
-import edu.wpi.first.wpilibj.command.Command;
+import com.spikes2212.genericsubsystems.utils.HeadingHold;
+import com.spikes2212.utils.ProfiledCommand;
 
 /**
  * This command moves a {@link TankDrivetrain} using speeds supplied to the left and the right sides independently.
  */
-public class DriveTank extends Command {
+public class DriveTank extends ProfiledCommand {
 
 	protected final TankDrivetrain tankDrivetrain;
 	protected final Supplier<Double> leftSpeedSuplier;
 	protected final Supplier<Double> rightSpeedSuplier;
+	protected HeadingHold headingHold;
 
 	/**
 	 * This constructs a new {@link DriveTank} command that moves the given
@@ -58,22 +59,46 @@ public class DriveTank extends Command {
 		this.rightSpeedSuplier = rightSpeedSupplier;
 	}
 
+	/**
+	 * Sets the {@link HeadingHold} used to keep the drivetrain facing the same
+	 * way while the driver isn't turning it, so it doesn't drift because of the
+	 * differences between its sides.
+	 *
+	 * @param headingHold
+	 *            the {@link HeadingHold} to use, or null to drive without it.
+	 *            Its heading should be positive counter-clockwise.
+	 */
+	public void setHeadingHold(HeadingHold headingHold) {
+		this.headingHold = headingHold;
+	}
+
 	// Called just before this Command runs the first time
-	protected void initialize() {
+	protected void doInitialize() {
+		if (headingHold != null) {
+			headingHold.reset();
+		}
 	}
 
 	// Called repeatedly when this Command is scheduled to run
-	protected void execute() {
-		tankDrivetrain.tankDrive(leftSpeedSuplier.get(), rightSpeedSuplier.get());
+	protected void doExecute() {
+		double leftSpeed = leftSpeedSuplier.get();
+		double rightSpeed = rightSpeedSuplier.get();
+		if (headingHold != null) {
+			double move = (leftSpeed + rightSpeed) / 2;
+			double rotate = headingHold.calculate((rightSpeed - leftSpeed) / 2);
+			tankDrivetrain.desaturatedTankDrive(move - rotate, move + rotate);
+		} else {
+			tankDrivetrain.tankDrive(leftSpeed, rightSpeed);
+		}
 	}
 
 	// Make this return true when this Command no longer needs to run execute()
-	protected boolean isFinished() {
+	protected boolean doIsFinished() {
 		return isTimedOut();
 	}
 
 	// Called once after isFinished returns true
-	protected void end() {
+	protected void doEnd() {
 		tankDrivetrain.tankDrive(0, 0);
 	}
 
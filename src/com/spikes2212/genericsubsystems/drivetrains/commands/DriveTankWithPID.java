@@ -3,16 +3,16 @@ package com.spikes2212.genericsubsystems.drivetrains.commands;
 import java.util.function.Supplier;
 
 import com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain;
+import com.spikes2212.utils.Clock;
+import com.spikes2212.utils.PIDLoop;
 import com.spikes2212.utils.PIDSettings;
+import com.spikes2212.utils.ProfiledCommand;
+import com.spikes2212.utils.SettleDetector;
 
-import edu.wpi.first.wpilibj.PIDController;
 import edu.wpi.first.wpilibj.PIDSource;
-import edu.wpi.first.wpilibj.Timer;
-import edu.wpi.first.wpilibj.command.Command;
 
 /**
- * This command moves a {@link TankDrivetrain} using wpilib's <a href=
- * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>.
+ * This command moves a {@link TankDrivetrain} using a {@link PIDLoop}.
  * It also waits a specified amount of time after the error is within the given
  * tolerance before stopping the PID loop to make sure the
  * {@link TankDrivetrain} doesn't go past the setpoint.
@@ -24,22 +24,34 @@ import edu.wpi.first.wpilibj.command.Command;
  * using the same units as the <a href=
  * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSources</a>.
  *
+ * <br>
+ * <br>
+ * Cross coupling can be turned on using {@link #setCrossCoupling(double)} or
+ * {@link #setCrossCoupling(Supplier, double)} to keep the
+ * {@link TankDrivetrain} driving straight when one side lags behind the
+ * other, by slowing down the side that is ahead and speeding up the one that
+ * is behind.
+ *
  * @author Omri "Riki" Cohen
  * @see TankDrivetrain
  * @see <a href=
  *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSource</a>
- * @see <a href=
- *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+ * @see PIDLoop
  **/
-public class DriveTankWithPID extends Command {
+public class DriveTankWithPID extends ProfiledCommand {
 
 	protected final TankDrivetrain tankDrivetrain;
 	protected final Supplier<Double> leftSetpoint;
 	protected final Supplier<Double> rightSetpoint;
 	protected final PIDSettings PIDSettings;
-	protected PIDController leftMovmentControl;
-	protected PIDController rightMovmentControl;
-	protected double lastTimeNotOnTarget;
+	protected PIDLoop leftMovmentControl;
+	protected PIDLoop rightMovmentControl;
+	protected final SettleDetector leftSettleDetector = new SettleDetector(0, 0);
+	protected final SettleDetector rightSettleDetector = new SettleDetector(0, 0);
+	protected double crossCouplingGain = 0;
+	protected Supplier<Double> headingSupplier;
+	protected volatile double leftOutput, rightOutput;
+	private double leftStart, rightStart, headingStart;
 
 	protected final PIDSource leftSource;
 
@@ -77,10 +89,9 @@ public class DriveTankWithPID extends Command {
  	 *            be using the same units as rightSource.
  	 *            </p>
 	 * @param PIDSettings
-	 *            the {@link PIDSettings} this command's PIDController needs.
+	 *            the {@link PIDSettings} this command's PID loop needs.
 	 * 
-	 * @see <a href=
-	 *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * @see PIDLoop
 	 */
 	public DriveTankWithPID(TankDrivetrain drivetrain, PIDSource leftSource, PIDSource rightSource,
 			Supplier<Double> leftSetpoint, Supplier<Double> rightSetpoint, PIDSettings PIDSettings) {
@@ -124,10 +135,9 @@ public class DriveTankWithPID extends Command {
  	 *            be using the same units as rightSource.
  	 *            </p>
 	 * @param PIDSettings
-	 *            the {@link PIDSettings} this command's PIDController needs.
+	 *            the {@link PIDSettings} this command's PID loop needs.
 	 * 
-	 * @see <a href=
-	 *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * @see PIDLoop
 	 */
 	public DriveTankWithPID(TankDrivetrain drivetrain, PIDSource leftSource, PIDSource rightSource, double leftSetpoint,
 			double rightSetpoint, PIDSettings PIDSettings) {
@@ -153,10 +163,9 @@ public class DriveTankWithPID extends Command {
 	 * @param setpoint
 	 *            a supplier supplying the target point of this command.
 	 * @param PIDSettings
-	 *            the {@link PIDSettings} this command's PIDController needs.
+	 *            the {@link PIDSettings} this command's PID loop needs.
 	 * 
-	 * @see <a href=
-	 *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * @see PIDLoop
 	 */
 	public DriveTankWithPID(TankDrivetrain drivetrain, PIDSource leftSource, PIDSource rightSource, double setpoint,
 			PIDSettings PIDSettings) {
@@ -187,10 +196,9 @@ public class DriveTankWithPID extends Command {
  	 *            be using the same units as the source.
  	 *            </p>
 	 * @param PIDSettings
-	 *            the {@link PIDSettings} this command's PIDController needs.
+	 *            the {@link PIDSettings} this command's PID loop needs.
 	 * 
-	 * @see <a href=
-	 *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * @see PIDLoop
 	 */
 	public DriveTankWithPID(TankDrivetrain drivetrain, PIDSource leftSource, PIDSource rightSource,
 			Supplier<Double> setpoint, PIDSettings PIDSettings) {
@@ -198,9 +206,8 @@ public class DriveTankWithPID extends Command {
 	}
 
 	/**
-	 * Gets the {@link PIDSettings} the <a href=
-	 * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
-	 * uses for this command.
+	 * Gets the {@link PIDSettings} the {@link PIDLoop} uses
+	 * for this command.
 	 * 
 	 * @return The PIDSetting object
 	 */
@@ -223,8 +230,7 @@ public class DriveTankWithPID extends Command {
 	 * @param tolerance
 	 *            the tolerance in the same units as the {@link #source}.
 	 * 
-	 * @see <a href=
-	 *      "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * @see PIDLoop
 	 */
 	public void setTolerance(double tolerance) {
 		PIDSettings.setTolerance(tolerance);
@@ -249,42 +255,104 @@ public class DriveTankWithPID extends Command {
 		PIDSettings.setWaitTime(waitTime);
 	}
 
+	/**
+	 * Turns on cross coupling using the difference between the distances each
+	 * side moved since the command started. This is meant for moving both
+	 * sides by the same distance, where the difference should stay 0.
+	 * 
+	 * <br>
+	 * <br>
+	 * The difference, multiplied by the gain, is taken from the side that is
+	 * ahead and added to the side that is behind. The outputs are then mixed
+	 * every {@link #execute()} and given to
+	 * {@link TankDrivetrain#desaturatedTankDrive(double, double)}. This should
+	 * be called before the command starts.
+	 *
+	 * @param gain
+	 *            the speed moved between the sides for each unit of
+	 *            difference, or 0 to turn cross coupling off
+	 */
+	public void setCrossCoupling(double gain) {
+		this.crossCouplingGain = gain;
+		this.headingSupplier = null;
+	}
+
+	/**
+	 * Turns on cross coupling using the change in a gyro's heading since the
+	 * command started, as in {@link #setCrossCoupling(double)}.
+	 *
+	 * @param headingSupplier
+	 *            a {@link Supplier} supplying the heading in degrees, positive
+	 *            counter-clockwise
+	 * @param gain
+	 *            the speed moved between the sides for each degree of change
+	 */
+	public void setCrossCoupling(Supplier<Double> headingSupplier, double gain) {
+		this.crossCouplingGain = gain;
+		this.headingSupplier = headingSupplier;
+	}
+
 	// Called just before this Command runs the first time
-	protected void initialize() {
-		leftMovmentControl = new PIDController(PIDSettings.getKP(), PIDSettings.getKI(), PIDSettings.getKD(),
-				leftSource, tankDrivetrain::setLeft);
+	protected void doInitialize() {
+		boolean coupled = crossCouplingGain != 0;
+		leftOutput = 0;
+		rightOutput = 0;
+		if (coupled) {
+			leftStart = leftSource.pidGet();
+			rightStart = rightSource.pidGet();
+			if (headingSupplier != null) {
+				headingStart = headingSupplier.get();
+			}
+		}
+		leftMovmentControl = new PIDLoop(PIDSettings.getKP(), PIDSettings.getKI(), PIDSettings.getKD(),
+				leftSource, coupled ? output -> leftOutput = output : tankDrivetrain::setLeft);
 		leftMovmentControl.setAbsoluteTolerance(PIDSettings.getTolerance());
 		leftMovmentControl.setSetpoint(this.leftSetpoint.get());
 		leftMovmentControl.setOutputRange(-1, 1);
-		rightMovmentControl = new PIDController(PIDSettings.getKP(), PIDSettings.getKI(), PIDSettings.getKD(),
-				rightSource, tankDrivetrain::setRight);
+		rightMovmentControl = new PIDLoop(PIDSettings.getKP(), PIDSettings.getKI(), PIDSettings.getKD(),
+				rightSource, coupled ? output -> rightOutput = output : tankDrivetrain::setRight);
 		rightMovmentControl.setAbsoluteTolerance(PIDSettings.getTolerance());
 		rightMovmentControl.setSetpoint(this.rightSetpoint.get());
 		rightMovmentControl.setOutputRange(-1, 1);
 		leftMovmentControl.enable();
 		rightMovmentControl.enable();
+		for (SettleDetector settleDetector : new SettleDetector[] { leftSettleDetector, rightSettleDetector }) {
+			settleDetector.setTolerance(PIDSettings.getTolerance());
+			settleDetector.setWaitTime(PIDSettings.getWaitTime());
+			settleDetector.reset();
+		}
 	}
 
 	// Called repeatedly when this Command is scheduled to run
-	protected void execute() {
+	protected void doExecute() {
 		double newSetPointLeft = leftSetpoint.get();
 		double newSetPointRight = rightSetpoint.get();
 		if (newSetPointLeft != leftMovmentControl.getSetpoint())
 			leftMovmentControl.setSetpoint(newSetPointLeft);
 		if (newSetPointRight != rightMovmentControl.getSetpoint())
 			rightMovmentControl.setSetpoint(newSetPointRight);
+		if (crossCouplingGain != 0) {
+			double turnError;
+			if (headingSupplier != null) {
+				turnError = Math.IEEEremainder(headingSupplier.get() - headingStart, 360);
+			} else {
+				turnError = (rightSource.pidGet() - rightStart) - (leftSource.pidGet() - leftStart);
+			}
+			double correction = crossCouplingGain * turnError;
+			tankDrivetrain.desaturatedTankDrive(leftOutput + correction, rightOutput - correction);
+		}
 	}
 
 	// Make this return true when this Command no longer needs to run execute()
-	protected boolean isFinished() {
-		if (!leftMovmentControl.onTarget() || !rightMovmentControl.onTarget()) {
-			lastTimeNotOnTarget = Timer.getFPGATimestamp();
-		}
-		return Timer.getFPGATimestamp() - lastTimeNotOnTarget >= PIDSettings.getWaitTime();
+	protected boolean doIsFinished() {
+		double time = Clock.now();
+		boolean leftSettled = leftSettleDetector.update(leftMovmentControl.getError(), time);
+		boolean rightSettled = rightSettleDetector.update(rightMovmentControl.getError(), time);
+		return leftSettled && rightSettled;
 	}
 
 	// Called once after isFinished returns true
-	protected void end() {
+	protected void doEnd() {
 		leftMovmentControl.disable();
 		rightMovmentControl.disable();
 		tankDrivetrain.stop();
@@ -0,0 +1,152 @@
+package com.spikes2212.genericsubsystems.drivetrains.commands;
+
+import java.util.function.Supplier;
+
+import com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain;
+import com.spikes2212.utils.Clock;
+import com.spikes2212.utils.Feedforward;
+import com.spikes2212.utils.PIDLoop;
+import com.spikes2212.utils.PIDSettings;
+import com.spikes2212.utils.ProfiledCommand;
+
+import edu.wpi.first.wpilibj.PIDSource;
+import edu.wpi.first.wpilibj.PIDSourceType;
+
+/**
+ * This command moves each side of a {@link TankDrivetrain} at a given
+ * velocity, for example from joysticks or a path follower.
+ *
+ * <br>
+ * <br>
+ * Each side's speed is the sum of a {@link Feedforward}, which gives most of
+ * the speed needed for the velocity and its change, and a {@link PIDLoop}
+ * on the side's rate, which corrects what is left. Since the feedforward is
+ * divided by the battery's voltage, the drivetrain responds the same way as
+ * the battery drains.
+ *
+ * <br>
+ * <br>
+ * The <a href=
+ * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSources</a>
+ * are set to measure rate while this command runs, and are set back to what
+ * they measured before when it ends. This command doesn't end by itself.
+ *
+ * @see Feedforward
+ * @see DriveTankWithPID
+ */
+public class DriveTankWithVelocity extends ProfiledCommand {
+
+	protected final TankDrivetrain tankDrivetrain;
+	protected final PIDSource leftSource;
+	protected final PIDSource rightSource;
+	protected final Supplier<Double> leftVelocitySupplier;
+	protected final Supplier<Double> rightVelocitySupplier;
+	protected final PIDSettings PIDSettings;
+	protected final Feedforward feedforward;
+	protected PIDLoop leftVelocityControl;
+	protected PIDLoop rightVelocityControl;
+	protected volatile double leftOutput, rightOutput;
+	private double lastLeftVelocity, lastRightVelocity, lastTime;
+	private PIDSourceType previousLeftType, previousRightType;
+
+	/**
+	 * This constructs a new {@link DriveTankWithVelocity} command.
+	 *
+	 * @param drivetrain
+	 *            the {@link TankDrivetrain} this command opperates on
+	 * @param leftSource
+	 *            the <a href=
+	 *            "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSource<a>
+	 *            of the left side, such as its encoder
+	 * @param rightSource
+	 *            the <a href=
+	 *            "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSource<a>
+	 *            of the right side, such as its encoder
+	 * @param leftVelocitySupplier
+	 *            a {@link Supplier} supplying the velocity of the left side, in
+	 *            the same units as the left source's rate
+	 * @param rightVelocitySupplier
+	 *            a {@link Supplier} supplying the velocity of the right side, in
+	 *            the same units as the right source's rate
+	 * @param PIDSettings
+	 *            the {@link PIDSettings} of each side's rate PID loop. The
+	 *            tolerance and wait time are not used.
+	 * @param feedforward
+	 *            the {@link Feedforward} of each side
+	 */
+	public DriveTankWithVelocity(TankDrivetrain drivetrain, PIDSource leftSource, PIDSource rightSource,
+			Supplier<Double> leftVelocitySupplier, Supplier<Double> rightVelocitySupplier, PIDSettings PIDSettings,
+			Feedforward feedforward) {
+		requires(drivetrain);
+		this.tankDrivetrain = drivetrain;
+		this.leftSource = leftSource;
+		this.rightSource = rightSource;
+		this.leftVelocitySupplier = leftVelocitySupplier;
+		this.rightVelocitySupplier = rightVelocitySupplier;
+		this.PIDSettings = PIDSettings;
+		this.feedforward = feedforward;
+	}
+
+	// Called just before this Command runs the first time
+	protected void doInitialize() {
+		previousLeftType = leftSource.getPIDSourceType();
+		previousRightType = rightSource.getPIDSourceType();
+		leftSource.setPIDSourceType(PIDSourceType.kRate);
+		rightSource.setPIDSourceType(PIDSourceType.kRate);
+		leftOutput = 0;
+		rightOutput = 0;
+		lastLeftVelocity = leftVelocitySupplier.get();
+		lastRightVelocity = rightVelocitySupplier.get();
+		lastTime = Clock.now();
+		leftVelocityControl = new PIDLoop(PIDSettings.getKP(), PIDSettings.getKI(), PIDSettings.getKD(),
+				leftSource, output -> leftOutput = output);
+		leftVelocityControl.setSetpoint(lastLeftVelocity);
+		leftVelocityControl.setOutputRange(-1, 1);
+		rightVelocityControl = new PIDLoop(PIDSettings.getKP(), PIDSettings.getKI(), PIDSettings.getKD(),
+				rightSource, output -> rightOutput = output);
+		rightVelocityControl.setSetpoint(lastRightVelocity);
+		rightVelocityControl.setOutputRange(-1, 1);
+		leftVelocityControl.enable();
+		rightVelocityControl.enable();
+	}
+
+	// Called repeatedly when this Command is scheduled to run
+	protected void doExecute() {
+		double leftVelocity = leftVelocitySupplier.get();
+		double rightVelocity = rightVelocitySupplier.get();
+		double time = Clock.now();
+		double timePassed = time - lastTime;
+		double leftAcceleration = timePassed > 0 ? (leftVelocity - lastLeftVelocity) / timePassed : 0;
+		double rightAcceleration = timePassed > 0 ? (rightVelocity - lastRightVelocity) / timePassed : 0;
+		lastLeftVelocity = leftVelocity;
+		lastRightVelocity = rightVelocity;
+		lastTime = time;
+
+		if (leftVelocity != leftVelocityControl.getSetpoint())
+			leftVelocityControl.setSetpoint(leftVelocity);
+		if (rightVelocity != rightVelocityControl.getSetpoint())
+			rightVelocityControl.setSetpoint(rightVelocity);
+		tankDrivetrain.desaturatedTankDrive(feedforward.calculate(leftVelocity, leftAcceleration) + leftOutput,
+				feedforward.calculate(rightVelocity, rightAcceleration) + rightOutput);
+	}
+
+	// Make this return true when this Command no longer needs to run execute()
+	protected boolean doIsFinished() {
+		return isTimedOut();
+	}
+
+	// Called once after isFinished returns true
+	protected void doEnd() {
+		leftVelocityControl.disable();
+		rightVelocityControl.disable();
+		tankDrivetrain.stop();
+		leftSource.setPIDSourceType(previousLeftType);
+		rightSource.setPIDSourceType(previousRightType);
+	}
+
+	// Called when another command which requires one or more of the same
+	// subsystems is scheduled to run
+	protected void interrupted() {
+		end();
+	}
+}
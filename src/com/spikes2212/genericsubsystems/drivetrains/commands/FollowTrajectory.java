@@ -0,0 +1,157 @@
+package com.spikes2212.genericsubsystems.drivetrains.commands;
+
+import com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain;
+import com.spikes2212.genericsubsystems.drivetrains.odometry.DifferentialOdometry;
+import com.spikes2212.genericsubsystems.drivetrains.odometry.Pose;
+import com.spikes2212.genericsubsystems.drivetrains.trajectories.Trajectory;
+import com.spikes2212.utils.Clock;
+import com.spikes2212.utils.Feedforward;
+import com.spikes2212.utils.ProfiledCommand;
+
+/**
+ * This command moves a {@link TankDrivetrain} along a {@link Trajectory}
+ * without stopping, using the Ramsete controller to correct the difference
+ * between the pose measured by a {@link DifferentialOdometry} and the pose the
+ * trajectory should be at.
+ *
+ * <br>
+ * <br>
+ * Every loop, the state of the trajectory at the time since this command
+ * started is looked up. The controller changes the state's velocity and
+ * turning rate to bring the robot back to the path, and they are turned into
+ * a velocity for each side. Each side's speed is then calculated by a
+ * {@link Feedforward} from its velocity and the trajectory's acceleration, so
+ * the drivetrain follows the trajectory the same way as the battery drains.
+ *
+ * <br>
+ * <br>
+ * The odometry should be started, and reset to the start of the trajectory
+ * before this command runs. This command ends when the trajectory's time
+ * ends.
+ *
+ * @see Trajectory
+ * @see DifferentialOdometry
+ * @see Feedforward
+ */
+public class FollowTrajectory extends ProfiledCommand {
+
+	/**
+	 * The default convergence gain of the controller. Larger values correct
+	 * errors more aggressively.
+	 */
+	public static final double DEFAULT_B = 2.0;
+
+	/**
+	 * The default damping gain of the controller, between 0 and 1.
+	 */
+	public static final double DEFAULT_ZETA = 0.7;
+
+	protected final TankDrivetrain tankDrivetrain;
+	protected final DifferentialOdometry odometry;
+	protected final Trajectory trajectory;
+	protected final double trackWidth;
+	protected final Feedforward feedforward;
+	protected double b = DEFAULT_B;
+	protected double zeta = DEFAULT_ZETA;
+
+	private final Pose pose = new Pose();
+	private double startTime;
+	private int index;
+
+	/**
+	 * This constructs a new {@link FollowTrajectory} command.
+	 *
+	 * @param drivetrain
+	 *            the {@link TankDrivetrain} this command opperates on
+	 * @param odometry
+	 *            the {@link DifferentialOdometry} tracking the drivetrain's pose
+	 * @param trajectory
+	 *            the {@link Trajectory} to follow
+	 * @param trackWidth
+	 *            the distance between the left and right wheels, in the same
+	 *            units as the odometry
+	 * @param feedforward
+	 *            the {@link Feedforward} of each side, whose gains are in
+	 *            volts per the odometry's units
+	 */
+	public FollowTrajectory(TankDrivetrain drivetrain, DifferentialOdometry odometry, Trajectory trajectory,
+			double trackWidth, Feedforward feedforward) {
+		requires(drivetrain);
+		this.tankDrivetrain = drivetrain;
+		this.odometry = odometry;
+		this.trajectory = trajectory;
+		this.trackWidth = trackWidth;
+		this.feedforward = feedforward;
+	}
+
+	/**
+	 * Sets the gains of the Ramsete controller.
+	 *
+	 * @param b
+	 *            the convergence gain. Must be positive.
+	 * @param zeta
+	 *            the damping gain, between 0 and 1
+	 */
+	public void setGains(double b, double zeta) {
+		this.b = b;
+		this.zeta = zeta;
+	}
+
+	@Override
+	protected void doInitialize() {
+		startTime = Clock.now();
+		index = 0;
+	}
+
+	@Override
+	protected void doExecute() {
+		double time = Clock.now() - startTime;
+		index = trajectory.indexAt(time, index);
+		double fraction = trajectory.fractionAt(time, index);
+		double desiredVelocity = trajectory.getVelocity(index, fraction);
+		double curvature = trajectory.getCurvature(index, fraction);
+		double desiredTurnRate = desiredVelocity * curvature;
+		double acceleration = trajectory.getAcceleration(index);
+
+		odometry.getPose(pose);
+		double heading = pose.getHeading();
+		double cos = Math.cos(heading), sin = Math.sin(heading);
+		double fieldErrorX = trajectory.getX(index, fraction) - pose.getX();
+		double fieldErrorY = trajectory.getY(index, fraction) - pose.getY();
+		double errorX = cos * fieldErrorX + sin * fieldErrorY;
+		double errorY = -sin * fieldErrorX + cos * fieldErrorY;
+		double errorHeading = Math.IEEEremainder(trajectory.getHeading(index, fraction) - heading, 2 * Math.PI);
+
+		double gain = 2 * zeta * Math.sqrt(desiredTurnRate * desiredTurnRate + b * desiredVelocity * desiredVelocity);
+		double velocity = desiredVelocity * Math.cos(errorHeading) + gain * errorX;
+		double turnRate = desiredTurnRate + gain * errorHeading + b * desiredVelocity * sinc(errorHeading) * errorY;
+
+		double leftVelocity = velocity - turnRate * trackWidth / 2;
+		double rightVelocity = velocity + turnRate * trackWidth / 2;
+		// the change of the curvature is small between states, so each side
+		// accelerates in proportion to the path
+		double leftAcceleration = acceleration * (1 - curvature * trackWidth / 2);
+		double rightAcceleration = acceleration * (1 + curvature * trackWidth / 2);
+		tankDrivetrain.tankDrive(feedforward.calculate(leftVelocity, leftAcceleration),
+				feedforward.calculate(rightVelocity, rightAcceleration));
+	}
+
+	private static double sinc(double x) {
+		return Math.abs(x) < 1e-9 ? 1 : Math.sin(x) / x;
+	}
+
+	@Override
+	protected boolean doIsFinished() {
+		return Clock.now() - startTime >= trajectory.getDuration();
+	}
+
+	@Override
+	protected void doEnd() {
+		tankDrivetrain.stop();
+	}
+
+	@Override
+	protected void interrupted() {
+		end();
+	}
+}
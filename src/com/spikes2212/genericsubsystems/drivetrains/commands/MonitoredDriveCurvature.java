@@ -0,0 +1,66 @@
+package com.spikes2212.genericsubsystems.drivetrains.commands;
+
+import java.util.function.Supplier;
+
+import com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain;
+import com.spikes2212.utils.VoltageMonitor;
+
+/**
+ * This command works similarly to {@link DriveCurvature}, only it scales down
+ * the speed given to the {@link TankDrivetrain} according to the current
+ * voltage.
+ * 
+ * <br>
+ * <br>
+ * The suppliers are scaled according to
+ * {@link VoltageMonitor#monitorSupplier(Supplier)}, meaning according to the
+ * default scaling method and values in {@link VoltageMonitor}.
+ *
+ * @see DriveCurvature
+ * @see VoltageMonitor
+ */
+public class MonitoredDriveCurvature extends DriveCurvature {
+
+	/**
+	 * This constructs a new {@link MonitoredDriveCurvature} command that moves
+	 * the given {@link TankDrivetrain} according to values from
+	 * {@link Supplier}s for the speed, the curvature and the quick turn mode.
+	 *
+	 * @param drivetrain
+	 *            the tank drivetrain this command operates on.
+	 * @param speedSupplier
+	 *            the double {@link Supplier} supplying the speed to move with.
+	 *            Positive values go forwards.
+	 * @param curvatureSupplier
+	 *            the double {@link Supplier} supplying the curvature of the
+	 *            path. Positive values turn left.
+	 * @param quickTurnSupplier
+	 *            the boolean {@link Supplier} supplying whether to turn in
+	 *            place, using the curvature as the rotational speed.
+	 * 
+	 * @see VoltageMonitor#monitorSupplier(Supplier)
+	 */
+	public MonitoredDriveCurvature(TankDrivetrain drivetrain, Supplier<Double> speedSupplier,
+			Supplier<Double> curvatureSupplier, Supplier<Boolean> quickTurnSupplier) {
+		super(drivetrain, VoltageMonitor.monitorSupplier(speedSupplier),
+				VoltageMonitor.monitorSupplier(curvatureSupplier), quickTurnSupplier);
+	}
+
+	/**
+	 * This constructs a new {@link MonitoredDriveCurvature} command that moves
+	 * the given {@link TankDrivetrain} according to a constant speed and
+	 * curvature.
+	 *
+	 * @param drivetrain
+	 *            the tank drivetrain this command operates on.
+	 * @param speed
+	 *            the speed to move with. Positive values go forwards.
+	 * @param curvature
+	 *            the curvature of the path. Positive values turn left.
+	 * 
+	 * @see VoltageMonitor#monitorSupplier(Supplier)
+	 */
+	public MonitoredDriveCurvature(TankDrivetrain drivetrain, double speed, double curvature) {
+		this(drivetrain, () -> speed, () -> curvature, () -> false);
+	}
+}
@@ -0,0 +1,53 @@
+package com.spikes2212.genericsubsystems.drivetrains.commands;
+
+import java.util.function.Supplier;
+
+import com.spikes2212.genericsubsystems.drivetrains.HolonomicDrivetrain;
+import com.spikes2212.utils.VoltageMonitor;
+
+/**
+ * This command work similarly to {@link DriveHolonomicFieldOriented}, only it
+ * scales down the speeds given to the {@link HolonomicDrivetrain} according to
+ * the current voltage.
+ * 
+ * <br>
+ * <br>
+ * The suppliers are scaled according to
+ * {@link VoltageMonitor#monitorSupplier(Supplier)}, meaning according to the
+ * default scaling method and values in {@link VoltageMonitor}. The heading is
+ * not scaled.
+ *
+ * @see DriveHolonomicFieldOriented
+ * @see VoltageMonitor
+ */
+public class MonitoredDriveHolonomicFieldOriented extends DriveHolonomicFieldOriented {
+
+	/**
+	 * This constructs a new {@link MonitoredDriveHolonomicFieldOriented} command
+	 * that moves the given {@link HolonomicDrivetrain} according to speed values
+	 * from Double {@link Supplier}s.
+	 *
+	 * @param drivetrain
+	 *            the holonomic drivetrain this command operates on.
+	 * @param speedYSupplier
+	 *            the double {@link Supplier} supplying the speed to move away
+	 *            from the driver with.
+	 * @param speedXSupplier
+	 *            the double {@link Supplier} supplying the speed to move to the
+	 *            driver's right with.
+	 * @param rotateSupplier
+	 *            the double {@link Supplier} supplying the speed to turn with.
+	 *            Positive values turn left.
+	 * @param headingSupplier
+	 *            the double {@link Supplier} supplying the heading of the
+	 *            drivetrain in degrees, positive counter-clockwise.
+	 * 
+	 * @see VoltageMonitor#monitorSupplier(Supplier)
+	 */
+	public MonitoredDriveHolonomicFieldOriented(HolonomicDrivetrain drivetrain, Supplier<Double> speedYSupplier,
+			Supplier<Double> speedXSupplier, Supplier<Double> rotateSupplier, Supplier<Double> headingSupplier) {
+		super(drivetrain, VoltageMonitor.monitorSupplier(speedYSupplier),
+				VoltageMonitor.monitorSupplier(speedXSupplier), VoltageMonitor.monitorSupplier(rotateSupplier),
+				headingSupplier);
+	}
+}
@@ -3,27 +3,28 @@ package com.spikes2212.genericsubsystems.drivetrains.commands;
 import java.util.function.Supplier;
 
 import com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain;
+import com.spikes2212.utils.Clock;
+import com.spikes2212.utils.PIDLoop;
 import com.spikes2212.utils.PIDSettings;
+import com.spikes2212.utils.SettleDetector;
 
-import edu.wpi.first.wpilibj.PIDController;
 import edu.wpi.first.wpilibj.PIDSource;
-import edu.wpi.first.wpilibj.Timer;
 
 /**
  * This command is used to orient an instance of {@link TankDrivetrain} to a specific setpoint
- * using wpilib's {@link PIDController}. This command is like
+ * using wpilib's {@link PIDLoop}. This command is like
  * {@link DriveArcadeWithPID} but doesn't move the {@link TankDrivetrain}
  * forwards and ends when reaching the wanted setpoint.
  *
  * @see TankDrivetrain
- * @see PIDController
+ * @see PIDLoop
  * @see DriveArcadeWithPID
  *
  * @author Simon "C" Kharmatsky
  */
 public class OrientWithPID extends DriveArcadeWithPID {
 
-	private double lastTimeOnTarget = 0;
+	protected final SettleDetector settleDetector = new SettleDetector(0, 0);
 
 	/**
 	 * This constructs new {@link OrientWithPID} command using
@@ -34,11 +35,11 @@ public class OrientWithPID extends DriveArcadeWithPID {
 	 *            the {@link TankDrivetrain} this command operates on
 	 * @param PIDSource
 	 *            the {@link PIDSource} that is used by the
-	 *            {@link PIDController} to get feedback about the robot's
+	 *            {@link PIDLoop} to get feedback about the robot's
 	 *            current state
 	 * @param setpointSupplier
 	 *            {@link Supplier<Double>} for the setpoint of the
-	 *            {@link PIDController}
+	 *            {@link PIDLoop}
 	 * @param PIDSettings
 	 *            {@link PIDSettings} for this command
 	 * @param outputRange
@@ -54,14 +55,14 @@ public class OrientWithPID extends DriveArcadeWithPID {
 
 	/**
 	 * This constructs new {@link OrientWithPID} command with constant value for
-	 * {@link OrientWithPID#setpointSupplier} using {@link PIDController},
-	 * {@link Double} for the setpoint and {@link PIDController} for the command
+	 * {@link OrientWithPID#setpointSupplier} using {@link PIDLoop},
+	 * {@link Double} for the setpoint and {@link PIDLoop} for the command
 	 * 
 	 * @param drivetrain
 	 *            the {@link TankDrivetrain} this command operates on
 	 * @param PIDSource
 	 *            the {@link PIDSource} that is used by the
-	 *            {@link PIDController} to get feedback about the robot's
+	 *            {@link PIDLoop} to get feedback about the robot's
 	 *            current state
 	 * @param setpoint
 	 *            constant value for {@link OrientWithPID#setpointSupplier}
@@ -79,9 +80,15 @@ public class OrientWithPID extends DriveArcadeWithPID {
 	}
 
 	@Override
-	protected boolean isFinished() {
-		if (!rotationController.onTarget())
-			lastTimeOnTarget = Timer.getFPGATimestamp();
-		return Timer.getFPGATimestamp() - lastTimeOnTarget >= PIDSettings.getWaitTime() || isTimedOut();
+	protected void doInitialize() {
+		super.doInitialize();
+		settleDetector.setTolerance(PIDSettings.getTolerance());
+		settleDetector.setWaitTime(PIDSettings.getWaitTime());
+		settleDetector.reset();
+	}
+
+	@Override
+	protected boolean doIsFinished() {
+		return settleDetector.update(rotationController.getError(), Clock.now()) || isTimedOut();
 	}
 }
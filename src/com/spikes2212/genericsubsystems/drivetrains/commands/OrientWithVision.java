@@ -0,0 +1,121 @@
+package com.spikes2212.genericsubsystems.drivetrains.commands;
+
+import java.util.function.Supplier;
+
+import com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain;
+import com.spikes2212.utils.PIDLoop;
+import com.spikes2212.utils.PIDSettings;
+import com.spikes2212.utils.SensorHistory;
+
+import edu.wpi.first.wpilibj.PIDSource;
+
+/**
+ * This command orients an instance of {@link TankDrivetrain} towards a target
+ * seen by a camera, using a gyro for feedback instead of the camera itself.
+ * This command is like {@link OrientWithPID}, but corrects for the time it
+ * takes the camera's result to arrive.
+ *
+ * <br>
+ * <br>
+ * Each result is an angle to the target relative to the robot, together with
+ * the time the frame it was calculated from was captured, such as
+ * {@link com.spikes2212.utils.CamerasHandler#getLastCaptureTime()}. The
+ * heading the robot had at that time is looked up in a {@link SensorHistory}
+ * of the gyro, and the angle is added to it. This gives the heading the target
+ * is at, which doesn't change as the robot turns, so old results don't make
+ * the robot turn past the target.
+ *
+ * <br>
+ * <br>
+ * Until the first result arrives, the robot keeps its current heading.
+ *
+ * @see OrientWithPID
+ * @see SensorHistory
+ */
+public class OrientWithVision extends OrientWithPID {
+
+	protected final VisionSetpoint visionSetpoint;
+
+	/**
+	 * This constructs new {@link OrientWithVision} command.
+	 * 
+	 * @param drivetrain
+	 *            the {@link TankDrivetrain} this command operates on
+	 * @param headingSource
+	 *            the {@link PIDSource} of the gyro, that is used by the
+	 *            {@link PIDLoop} to get feedback about the robot's
+	 *            current heading, in degrees
+	 * @param headingHistory
+	 *            a started {@link SensorHistory} of the same gyro
+	 * @param targetAngleSupplier
+	 *            {@link Supplier<Double>} for the angle to the target relative
+	 *            to the robot, in degrees. It should increase in the same
+	 *            direction as the gyro's heading.
+	 * @param captureTimeSupplier
+	 *            {@link Supplier<Double>} for the time the frame the angle was
+	 *            calculated from was captured, in seconds, according to the
+	 *            same clock as the history. A new result is used whenever this
+	 *            time changes.
+	 * @param PIDSettings
+	 *            {@link PIDSettings} for this command
+	 */
+	public OrientWithVision(TankDrivetrain drivetrain, PIDSource headingSource, SensorHistory headingHistory,
+			Supplier<Double> targetAngleSupplier, Supplier<Double> captureTimeSupplier, PIDSettings PIDSettings) {
+		this(drivetrain, headingSource, new VisionSetpoint(headingHistory, targetAngleSupplier, captureTimeSupplier),
+				PIDSettings);
+	}
+
+	private OrientWithVision(TankDrivetrain drivetrain, PIDSource headingSource, VisionSetpoint visionSetpoint,
+			PIDSettings PIDSettings) {
+		super(drivetrain, headingSource, visionSetpoint, PIDSettings, 360);
+		this.visionSetpoint = visionSetpoint;
+	}
+
+	@Override
+	protected void doInitialize() {
+		visionSetpoint.reset();
+		super.doInitialize();
+	}
+
+	/**
+	 * Converts the camera's results into headings, only when a new result
+	 * arrives.
+	 */
+	protected static class VisionSetpoint implements Supplier<Double> {
+
+		private final SensorHistory headingHistory;
+		private final Supplier<Double> targetAngleSupplier;
+		private final Supplier<Double> captureTimeSupplier;
+		private double lastCaptureTime;
+		private double setpoint;
+
+		private VisionSetpoint(SensorHistory headingHistory, Supplier<Double> targetAngleSupplier,
+				Supplier<Double> captureTimeSupplier) {
+			this.headingHistory = headingHistory;
+			this.targetAngleSupplier = targetAngleSupplier;
+			this.captureTimeSupplier = captureTimeSupplier;
+			reset();
+		}
+
+		private void reset() {
+			lastCaptureTime = Double.NaN;
+			setpoint = Double.NaN;
+		}
+
+		@Override
+		public Double get() {
+			double captureTime = captureTimeSupplier.get();
+			if (captureTime != lastCaptureTime && !Double.isNaN(captureTime)) {
+				lastCaptureTime = captureTime;
+				double heading = headingHistory.get(captureTime);
+				if (!Double.isNaN(heading)) {
+					setpoint = heading + targetAngleSupplier.get();
+				}
+			}
+			if (Double.isNaN(setpoint)) {
+				setpoint = headingHistory.getLatest();
+			}
+			return setpoint;
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package com.spikes2212.genericsubsystems.drivetrains.odometry;
+
+import java.util.function.Supplier;
+
+import com.spikes2212.utils.Clock;
+import com.spikes2212.utils.ControlLoop;
+import com.spikes2212.utils.TimeSeriesBuffer;
+
+/**
+ * This class tracks the position of a
+ * {@link com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain} on the
+ * field, by integrating the distances of its sides' encoders and the heading
+ * of a gyro.
+ *
+ * <br>
+ * <br>
+ * After {@link #start()} is called, the pose is updated every
+ * {@link ControlLoop#PERIOD} seconds on the {@link ControlLoop}'s thread, which
+ * is much more accurate than updating it once every robot loop. Every update
+ * is also kept in a history of the last {@link #HISTORY_DURATION} seconds, so
+ * measurements which arrive late, such as camera results, can be matched with
+ * where the robot was when they were taken.
+ *
+ * <br>
+ * <br>
+ * The heading should be positive counter-clockwise. Most FRC gyros are
+ * positive clockwise, so their angle should be negated, for example
+ * {@code () -> -gyro.getAngle()}.
+ *
+ * @see Pose
+ */
+public class DifferentialOdometry implements Runnable {
+
+	/**
+	 * The duration of the pose history, in seconds.
+	 */
+	public static final double HISTORY_DURATION = 1;
+
+	private static final int X = 0, Y = 1, HEADING = 2;
+
+	private final Supplier<Double> leftDistanceSupplier;
+	private final Supplier<Double> rightDistanceSupplier;
+	private final Supplier<Double> headingSupplier;
+	private final TimeSeriesBuffer history;
+	private final double[] sample = new double[3];
+
+	private double x = 0;
+	private double y = 0;
+	private double heading = 0;
+	private double headingOffset = 0;
+	private double lastLeftDistance;
+	private double lastRightDistance;
+	private boolean hasDistances = false;
+
+	/**
+	 * Constructs a new {@link DifferentialOdometry} starting at the origin,
+	 * facing forward.
+	 *
+	 * @param leftDistanceSupplier
+	 *            a {@link Supplier} supplying the distance the left side has
+	 *            driven, positive forward
+	 * @param rightDistanceSupplier
+	 *            a {@link Supplier} supplying the distance the right side has
+	 *            driven, positive forward
+	 * @param headingSupplier
+	 *            a {@link Supplier} supplying the heading in degrees, positive
+	 *            counter-clockwise
+	 */
+	public DifferentialOdometry(Supplier<Double> leftDistanceSupplier, Supplier<Double> rightDistanceSupplier,
+			Supplier<Double> headingSupplier) {
+		this.leftDistanceSupplier = leftDistanceSupplier;
+		this.rightDistanceSupplier = rightDistanceSupplier;
+		this.headingSupplier = headingSupplier;
+		this.history = new TimeSeriesBuffer((int) Math.ceil(HISTORY_DURATION / ControlLoop.PERIOD), sample.length);
+	}
+
+	/**
+	 * Starts updating the pose on the {@link ControlLoop}'s thread.
+	 */
+	public void start() {
+		ControlLoop.add(this);
+	}
+
+	/**
+	 * Stops updating the pose.
+	 */
+	public void stop() {
+		ControlLoop.remove(this);
+	}
+
+	/**
+	 * Moves the tracked pose to the given position and heading, and clears the
+	 * pose history.
+	 *
+	 * @param x
+	 *            the new forward position
+	 * @param y
+	 *            the new position to the left
+	 * @param heading
+	 *            the new heading in radians, positive counter-clockwise
+	 */
+	public synchronized void reset(double x, double y, double heading) {
+		this.x = x;
+		this.y = y;
+		this.heading = heading;
+		this.headingOffset = heading - Math.toRadians(headingSupplier.get());
+		this.hasDistances = false;
+		history.clear();
+	}
+
+	/**
+	 * Moves the tracked pose to the origin, facing forward.
+	 */
+	public void reset() {
+		reset(0, 0, 0);
+	}
+
+	/**
+	 * Reads the sensors once and moves the pose by the distance driven since
+	 * the last update. This is called by the {@link ControlLoop} after
+	 * {@link #start()}, and can be called directly instead of starting.
+	 */
+	public synchronized void update() {
+		double leftDistance = leftDistanceSupplier.get();
+		double rightDistance = rightDistanceSupplier.get();
+		double newHeading = Math.toRadians(headingSupplier.get()) + headingOffset;
+		if (hasDistances) {
+			double distance = (leftDistance - lastLeftDistance + rightDistance - lastRightDistance) / 2;
+			double middleHeading = (heading + newHeading) / 2;
+			x += distance * Math.cos(middleHeading);
+			y += distance * Math.sin(middleHeading);
+		}
+		heading = newHeading;
+		lastLeftDistance = leftDistance;
+		lastRightDistance = rightDistance;
+		hasDistances = true;
+		sample[X] = x;
+		sample[Y] = y;
+		sample[HEADING] = heading;
+		history.add(Clock.now(), sample);
+	}
+
+	@Override
+	public void run() {
+		update();
+	}
+
+	/**
+	 * Writes the current pose into the given {@link Pose}.
+	 *
+	 * @param pose
+	 *            the {@link Pose} to write to
+	 */
+	public synchronized void getPose(Pose pose) {
+		pose.set(x, y, heading);
+	}
+
+	/**
+	 * Writes the pose the robot had at the given time into the given
+	 * {@link Pose}, interpolating between the updates around it. Times older
+	 * than the history get its oldest pose.
+	 *
+	 * @param time
+	 *            the time to look up according to {@link Clock}, in seconds
+	 * @param pose
+	 *            the {@link Pose} to write to
+	 * @return true if the pose was written, or false if there is no history
+	 *         yet.
+	 */
+	public synchronized boolean getPoseAt(double time, Pose pose) {
+		if (!history.get(time, sample)) {
+			return false;
+		}
+		pose.set(sample[X], sample[Y], sample[HEADING]);
+		return true;
+	}
+}
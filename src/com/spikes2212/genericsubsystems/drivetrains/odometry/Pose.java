@@ -0,0 +1,90 @@
+package com.spikes2212.genericsubsystems.drivetrains.odometry;
+
+/**
+ * This class represents the position and heading of a robot on the field.
+ *
+ * <br>
+ * <br>
+ * The x axis points forward from where the robot was when its odometry was
+ * reset, and the y axis points to its left. The heading is in radians, and
+ * positive values are counter-clockwise.
+ *
+ * <br>
+ * <br>
+ * A {@link Pose} can be changed, so the same instance can be filled again
+ * every loop without allocating new ones.
+ */
+public class Pose {
+
+	private double x;
+	private double y;
+	private double heading;
+
+	/**
+	 * Constructs a new {@link Pose} at the origin, facing forward.
+	 */
+	public Pose() {
+		this(0, 0, 0);
+	}
+
+	/**
+	 * Constructs a new {@link Pose} with the given position and heading.
+	 *
+	 * @param x
+	 *            the forward position
+	 * @param y
+	 *            the position to the left
+	 * @param heading
+	 *            the heading in radians, positive counter-clockwise
+	 */
+	public Pose(double x, double y, double heading) {
+		set(x, y, heading);
+	}
+
+	/**
+	 * Changes this {@link Pose} to the given position and heading.
+	 *
+	 * @param x
+	 *            the forward position
+	 * @param y
+	 *            the position to the left
+	 * @param heading
+	 *            the heading in radians, positive counter-clockwise
+	 */
+	public void set(double x, double y, double heading) {
+		this.x = x;
+		this.y = y;
+		this.heading = heading;
+	}
+
+	/**
+	 * Changes this {@link Pose} to be the same as the given one.
+	 *
+	 * @param other
+	 *            the {@link Pose} to copy
+	 */
+	public void set(Pose other) {
+		set(other.x, other.y, other.heading);
+	}
+
+	public double getX() {
+		return x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * @return the heading in radians, positive counter-clockwise. It is not
+	 *         wrapped, so after two full turns it is 4&pi;.
+	 */
+	public double getHeading() {
+		return heading;
+	}
+
+	@Override
+	public String toString() {
+		return "Pose(" + x + ", " + y + ", " + Math.toDegrees(heading) + " degrees)";
+	}
+}
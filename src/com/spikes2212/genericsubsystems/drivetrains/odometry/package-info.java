@@ -0,0 +1,8 @@
+/**
+ * com.spikes2212.genericsubsystems.drivetrains.odometry contains classes which track the position of a drivetrain
+ * on the field, using its encoders and gyro. <br>
+ *
+ * For example - a {@link com.spikes2212.genericsubsystems.drivetrains.odometry.DifferentialOdometry} which follows
+ * where a {@link com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain} is and where it was a moment ago.
+ */
+package com.spikes2212.genericsubsystems.drivetrains.odometry;
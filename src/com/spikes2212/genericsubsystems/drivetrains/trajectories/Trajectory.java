@@ -0,0 +1,317 @@
+package com.spikes2212.genericsubsystems.drivetrains.trajectories;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import com.spikes2212.genericsubsystems.drivetrains.odometry.Pose;
+
+/**
+ * This class represents a path for a drivetrain to follow, as a list of states
+ * timed from the start of the path. Each state has a time, a pose, the
+ * velocity along the path and the curvature of the path.
+ *
+ * <br>
+ * <br>
+ * The positions and headings use the same axes as {@link Pose}: x is forward,
+ * y is to the left and the heading is in radians, positive counter-clockwise.
+ * The velocity is in units of distance per second, and the curvature is in
+ * radians per unit of distance, positive when turning left.
+ *
+ * <br>
+ * <br>
+ * States are kept in primitive arrays, and looking them up doesn't allocate
+ * memory, so it can be done every loop.
+ *
+ * <br>
+ * <br>
+ * A trajectory can be saved to a compact binary file using
+ * {@link #save(File)}, and loaded back with {@link #load(File)}, which maps
+ * the file to memory and copies each array from it in one step.
+ *
+ * @see Pose
+ * @see TrajectoryGenerator
+ */
+public class Trajectory {
+
+	private static final int MAGIC = 0x53504b54;
+	static final int VERSION = 1;
+	private static final int HEADER_SIZE = 12;
+
+	private final double[] times;
+	private final double[] xs;
+	private final double[] ys;
+	private final double[] headings;
+	private final double[] velocities;
+	private final double[] curvatures;
+
+	/**
+	 * Constructs a new {@link Trajectory} from the given states. The arrays are
+	 * used as they are, and should not be changed afterwards.
+	 *
+	 * @param times
+	 *            the time of each state from the start of the path, in seconds,
+	 *            in increasing order
+	 * @param xs
+	 *            the forward position of each state
+	 * @param ys
+	 *            the position to the left of each state
+	 * @param headings
+	 *            the heading of each state, in radians
+	 * @param velocities
+	 *            the velocity of each state, in units of distance per second
+	 * @param curvatures
+	 *            the curvature of each state, in radians per unit of distance
+	 *
+	 * @throws IllegalArgumentException
+	 *             when the arrays are empty or have different lengths
+	 */
+	public Trajectory(double[] times, double[] xs, double[] ys, double[] headings, double[] velocities,
+			double[] curvatures) {
+		int length = times.length;
+		if (length == 0 || xs.length != length || ys.length != length || headings.length != length
+				|| velocities.length != length || curvatures.length != length) {
+			throw new IllegalArgumentException("Cannot construct Trajectory from states of different lengths");
+		}
+		this.times = times;
+		this.xs = xs;
+		this.ys = ys;
+		this.headings = headings;
+		this.velocities = velocities;
+		this.curvatures = curvatures;
+	}
+
+	/**
+	 * @return the amount of states in this trajectory.
+	 */
+	public int size() {
+		return times.length;
+	}
+
+	/**
+	 * @return the time it takes to follow this trajectory, in seconds.
+	 */
+	public double getDuration() {
+		return times[times.length - 1];
+	}
+
+	/**
+	 * Finds the last state at or before the given time. The search starts from
+	 * the given index, so when the time only increases, as it does while
+	 * following the trajectory, passing the last index found makes each search
+	 * take only a step or two.
+	 *
+	 * @param time
+	 *            the time from the start of the path, in seconds
+	 * @param startIndex
+	 *            the index to start searching from
+	 * @return the index of the last state at or before the time, or 0 if the
+	 *         time is before the first state.
+	 */
+	public int indexAt(double time, int startIndex) {
+		int index = Math.max(0, Math.min(startIndex, times.length - 1));
+		while (index > 0 && times[index] > time) {
+			index--;
+		}
+		while (index < times.length - 1 && times[index + 1] <= time) {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * Gets how far the given time is between the state at the given index and
+	 * the one after it.
+	 *
+	 * @param time
+	 *            the time from the start of the path, in seconds
+	 * @param index
+	 *            the index of the state before the time, as returned by
+	 *            {@link #indexAt(double, int)}
+	 * @return a value between 0, at the state at the index, and 1, at the next
+	 *         state.
+	 */
+	public double fractionAt(double time, int index) {
+		if (index >= times.length - 1 || time <= times[index]) {
+			return 0;
+		}
+		return Math.min(1, (time - times[index]) / (times[index + 1] - times[index]));
+	}
+
+	public double getTime(int index) {
+		return times[index];
+	}
+
+	public double getX(int index) {
+		return xs[index];
+	}
+
+	public double getY(int index) {
+		return ys[index];
+	}
+
+	public double getHeading(int index) {
+		return headings[index];
+	}
+
+	public double getVelocity(int index) {
+		return velocities[index];
+	}
+
+	public double getCurvature(int index) {
+		return curvatures[index];
+	}
+
+	/**
+	 * Gets the forward position between two states.
+	 *
+	 * @param index
+	 *            the index of the state before
+	 * @param fraction
+	 *            how far between the state and the next one, as returned by
+	 *            {@link #fractionAt(double, int)}
+	 * @return the interpolated forward position.
+	 */
+	public double getX(int index, double fraction) {
+		return interpolate(xs, index, fraction);
+	}
+
+	/**
+	 * Gets the position to the left between two states.
+	 *
+	 * @see #getX(int, double)
+	 */
+	public double getY(int index, double fraction) {
+		return interpolate(ys, index, fraction);
+	}
+
+	/**
+	 * Gets the heading between two states, in radians.
+	 *
+	 * @see #getX(int, double)
+	 */
+	public double getHeading(int index, double fraction) {
+		if (fraction == 0 || index >= headings.length - 1) {
+			return headings[index];
+		}
+		double change = Math.IEEEremainder(headings[index + 1] - headings[index], 2 * Math.PI);
+		return headings[index] + change * fraction;
+	}
+
+	/**
+	 * Gets the velocity between two states.
+	 *
+	 * @see #getX(int, double)
+	 */
+	public double getVelocity(int index, double fraction) {
+		return interpolate(velocities, index, fraction);
+	}
+
+	/**
+	 * Gets the curvature between two states.
+	 *
+	 * @see #getX(int, double)
+	 */
+	public double getCurvature(int index, double fraction) {
+		return interpolate(curvatures, index, fraction);
+	}
+
+	/**
+	 * Gets the acceleration along the path between the state at the given
+	 * index and the one after it. Since the velocity changes linearly between
+	 * the states, the acceleration is the same anywhere between them.
+	 *
+	 * @param index
+	 *            the index of the state before
+	 * @return the acceleration, in units of distance per second squared, or 0
+	 *         at the last state.
+	 */
+	public double getAcceleration(int index) {
+		if (index >= times.length - 1 || times[index + 1] <= times[index]) {
+			return 0;
+		}
+		return (velocities[index + 1] - velocities[index]) / (times[index + 1] - times[index]);
+	}
+
+	/**
+	 * Writes the pose of the state at the given index into the given
+	 * {@link Pose}, for example to reset the odometry to the start of this
+	 * trajectory.
+	 *
+	 * @param index
+	 *            the index of the state
+	 * @param pose
+	 *            the {@link Pose} to write to
+	 */
+	public void getPose(int index, Pose pose) {
+		pose.set(xs[index], ys[index], headings[index]);
+	}
+
+	/**
+	 * Writes this trajectory to a binary file. The file has a header with the
+	 * amount of states, followed by each of the arrays of the states.
+	 *
+	 * @param file
+	 *            the file to write to. If it exists, it is overwritten.
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public void save(File file) throws IOException {
+		try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(times.length);
+			for (double[] values : new double[][] { times, xs, ys, headings, velocities, curvatures }) {
+				for (double value : values) {
+					output.writeDouble(value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads a trajectory from a file written by {@link #save(File)}.
+	 *
+	 * @param file
+	 *            the file to read
+	 * @return the trajectory in the file.
+	 * @throws IOException
+	 *             if the file cannot be read or isn't a trajectory
+	 */
+	public static Trajectory load(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			if (fileSize < HEADER_SIZE) {
+				throw new IOException(file + " is not a trajectory");
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				throw new IOException(file + " is not a trajectory");
+			}
+			int length = buffer.getInt();
+			if (length <= 0 || fileSize != HEADER_SIZE + 6L * length * Double.BYTES) {
+				throw new IOException(file + " is not a complete trajectory");
+			}
+			double[][] arrays = new double[6][length];
+			DoubleBuffer values = buffer.asDoubleBuffer();
+			for (double[] array : arrays) {
+				values.get(array);
+			}
+			return new Trajectory(arrays[0], arrays[1], arrays[2], arrays[3], arrays[4], arrays[5]);
+		}
+	}
+
+	private static double interpolate(double[] values, int index, double fraction) {
+		if (fraction == 0 || index >= values.length - 1) {
+			return values[index];
+		}
+		return values[index] + (values[index + 1] - values[index]) * fraction;
+	}
+}
@@ -0,0 +1,88 @@
+package com.spikes2212.genericsubsystems.drivetrains.trajectories;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.spikes2212.genericsubsystems.drivetrains.odometry.Pose;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * This class keeps generated trajectories in files in a directory, so each
+ * path is only generated once and is loaded in milliseconds afterwards, for
+ * example at robotInit.
+ *
+ * <br>
+ * <br>
+ * Each file is named by {@link TrajectoryGenerator#hash(Pose...)}, so changing
+ * the waypoints or the generator's limits generates and saves the path again,
+ * and the old file is simply not used. Files can also be generated in advance
+ * on a computer and deployed to the robot together with the code.
+ *
+ * @see TrajectoryGenerator
+ * @see Trajectory#load(File)
+ */
+public class TrajectoryCache {
+
+	private final File directory;
+
+	/**
+	 * Constructs a new {@link TrajectoryCache} in the given directory, creating
+	 * it if it doesn't exist.
+	 *
+	 * @param directory
+	 *            the directory the trajectory files are kept in
+	 */
+	public TrajectoryCache(File directory) {
+		this.directory = directory;
+		directory.mkdirs();
+	}
+
+	/**
+	 * Gets the trajectory the given generator generates through the given
+	 * waypoints, loading it from its file if it was saved before. Otherwise it
+	 * is generated and saved. If saving fails, a warning is reported to the
+	 * driver station and the generated trajectory is still returned.
+	 *
+	 * @param generator
+	 *            the {@link TrajectoryGenerator} with the path's limits
+	 * @param waypoints
+	 *            the poses the path passes through, in order
+	 * @return the trajectory through the waypoints.
+	 */
+	public Trajectory get(TrajectoryGenerator generator, Pose... waypoints) {
+		File file = getFile(generator, waypoints);
+		if (file.isFile()) {
+			try {
+				return Trajectory.load(file);
+			} catch (IOException e) {
+				DriverStation.reportWarning("Could not load cached trajectory " + file + ": " + e, false);
+			}
+		}
+		Trajectory trajectory = generator.generate(waypoints);
+		try {
+			File temporary = new File(directory, file.getName() + ".tmp");
+			trajectory.save(temporary);
+			if (!temporary.renameTo(file)) {
+				temporary.delete();
+				throw new IOException("cannot rename " + temporary);
+			}
+		} catch (IOException e) {
+			DriverStation.reportWarning("Could not save trajectory " + file + ": " + e, false);
+		}
+		return trajectory;
+	}
+
+	/**
+	 * Gets the file the trajectory through the given waypoints is kept in.
+	 *
+	 * @param generator
+	 *            the {@link TrajectoryGenerator} with the path's limits
+	 * @param waypoints
+	 *            the poses the path passes through, in order
+	 * @return the file of the trajectory, which may not exist yet.
+	 */
+	public File getFile(TrajectoryGenerator generator, Pose... waypoints) {
+		return new File(directory, String.format("%016x.traj", generator.hash(waypoints)));
+	}
+}
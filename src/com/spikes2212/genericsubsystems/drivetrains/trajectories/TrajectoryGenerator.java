@@ -0,0 +1,224 @@
+package com.spikes2212.genericsubsystems.drivetrains.trajectories;
+
+import com.spikes2212.genericsubsystems.drivetrains.odometry.Pose;
+
+/**
+ * This class generates a {@link Trajectory} that passes through a list of
+ * waypoints, while keeping to limits on the velocity, the acceleration and the
+ * centripetal acceleration.
+ *
+ * <br>
+ * <br>
+ * Each two waypoints are joined by a quintic Hermite spline, which leaves each
+ * waypoint in the direction of its heading and has no sudden changes in
+ * curvature between segments. The path is then timed: each point gets the
+ * highest velocity allowed by the limits, passing forward from the start at
+ * rest and backward from the end at rest, so the robot can both speed up to it
+ * and slow down from it.
+ *
+ * <br>
+ * <br>
+ * Generating a trajectory can take a long time on the roboRIO, so paths which
+ * are known in advance should be loaded through a {@link TrajectoryCache}.
+ *
+ * @see Trajectory
+ * @see TrajectoryCache
+ */
+public class TrajectoryGenerator {
+
+	private final double maxVelocity;
+	private final double maxAcceleration;
+	private double maxCentripetalAcceleration = Double.POSITIVE_INFINITY;
+	private int samplesPerSegment = 200;
+
+	/**
+	 * Constructs a new {@link TrajectoryGenerator} with the given limits.
+	 *
+	 * @param maxVelocity
+	 *            the maximum velocity, in units of distance per second
+	 * @param maxAcceleration
+	 *            the maximum acceleration and deceleration, in units of distance
+	 *            per second squared
+	 */
+	public TrajectoryGenerator(double maxVelocity, double maxAcceleration) {
+		if (maxVelocity <= 0 || maxAcceleration <= 0) {
+			throw new IllegalArgumentException("Cannot construct TrajectoryGenerator without positive limits");
+		}
+		this.maxVelocity = maxVelocity;
+		this.maxAcceleration = maxAcceleration;
+	}
+
+	/**
+	 * Sets the maximum centripetal acceleration, which limits the velocity in
+	 * turns to {@code sqrt(maxCentripetalAcceleration / |curvature|)}. There is
+	 * no limit by default.
+	 *
+	 * @param maxCentripetalAcceleration
+	 *            the maximum centripetal acceleration, in units of distance per
+	 *            second squared
+	 */
+	public void setMaxCentripetalAcceleration(double maxCentripetalAcceleration) {
+		this.maxCentripetalAcceleration = maxCentripetalAcceleration;
+	}
+
+	/**
+	 * Sets the amount of points each segment between two waypoints is split
+	 * into. More points make the trajectory more accurate and larger.
+	 *
+	 * @param samplesPerSegment
+	 *            the amount of points in each segment. The default is 200.
+	 */
+	public void setSamplesPerSegment(int samplesPerSegment) {
+		this.samplesPerSegment = Math.max(1, samplesPerSegment);
+	}
+
+	/**
+	 * Generates a trajectory passing through the given waypoints, starting and
+	 * ending at rest.
+	 *
+	 * @param waypoints
+	 *            the poses to pass through, in order. Each heading is the
+	 *            direction the path passes through the waypoint in.
+	 * @return the generated {@link Trajectory}.
+	 *
+	 * @throws IllegalArgumentException
+	 *             when less than two waypoints are given
+	 */
+	public Trajectory generate(Pose... waypoints) {
+		if (waypoints.length < 2) {
+			throw new IllegalArgumentException("Cannot generate a trajectory from less than two waypoints");
+		}
+		int length = (waypoints.length - 1) * samplesPerSegment + 1;
+		double[] xs = new double[length];
+		double[] ys = new double[length];
+		double[] headings = new double[length];
+		double[] curvatures = new double[length];
+		double[] distances = new double[length];
+
+		int count = 0;
+		for (int segment = 0; segment < waypoints.length - 1; segment++) {
+			Pose start = waypoints[segment], end = waypoints[segment + 1];
+			double scale = 1.2 * Math.hypot(end.getX() - start.getX(), end.getY() - start.getY());
+			double startDX = scale * Math.cos(start.getHeading()), startDY = scale * Math.sin(start.getHeading());
+			double endDX = scale * Math.cos(end.getHeading()), endDY = scale * Math.sin(end.getHeading());
+			for (int i = segment == 0 ? 0 : 1; i <= samplesPerSegment; i++) {
+				double t = (double) i / samplesPerSegment;
+				double t2 = t * t, t3 = t2 * t, t4 = t3 * t, t5 = t4 * t;
+
+				double h0 = 1 - 10 * t3 + 15 * t4 - 6 * t5;
+				double h1 = t - 6 * t3 + 8 * t4 - 3 * t5;
+				double h4 = -4 * t3 + 7 * t4 - 3 * t5;
+				double h5 = 10 * t3 - 15 * t4 + 6 * t5;
+				double x = h0 * start.getX() + h1 * startDX + h4 * endDX + h5 * end.getX();
+				double y = h0 * start.getY() + h1 * startDY + h4 * endDY + h5 * end.getY();
+
+				double d0 = -30 * t2 + 60 * t3 - 30 * t4;
+				double d1 = 1 - 18 * t2 + 32 * t3 - 15 * t4;
+				double d4 = -12 * t2 + 28 * t3 - 15 * t4;
+				double dx = d0 * start.getX() + d1 * startDX + d4 * endDX - d0 * end.getX();
+				double dy = d0 * start.getY() + d1 * startDY + d4 * endDY - d0 * end.getY();
+
+				double dd0 = -60 * t + 180 * t2 - 120 * t3;
+				double dd1 = -36 * t + 96 * t2 - 60 * t3;
+				double dd4 = -24 * t + 84 * t2 - 60 * t3;
+				double ddx = dd0 * start.getX() + dd1 * startDX + dd4 * endDX - dd0 * end.getX();
+				double ddy = dd0 * start.getY() + dd1 * startDY + dd4 * endDY - dd0 * end.getY();
+
+				double speed = Math.hypot(dx, dy);
+				if (count > 0) {
+					double step = Math.hypot(x - xs[count - 1], y - ys[count - 1]);
+					if (step < 1e-9) {
+						continue;
+					}
+					distances[count] = distances[count - 1] + step;
+				}
+				xs[count] = x;
+				ys[count] = y;
+				if (speed < 1e-9) {
+					headings[count] = count > 0 ? headings[count - 1] : start.getHeading();
+					curvatures[count] = 0;
+				} else {
+					double heading = Math.atan2(dy, dx);
+					if (count > 0) {
+						heading = headings[count - 1] + Math.IEEEremainder(heading - headings[count - 1], 2 * Math.PI);
+					}
+					headings[count] = heading;
+					curvatures[count] = (dx * ddy - dy * ddx) / (speed * speed * speed);
+				}
+				count++;
+			}
+		}
+
+		double[] velocities = new double[count];
+		for (int i = 0; i < count; i++) {
+			double limit = maxVelocity;
+			if (curvatures[i] != 0) {
+				limit = Math.min(limit, Math.sqrt(maxCentripetalAcceleration / Math.abs(curvatures[i])));
+			}
+			velocities[i] = limit;
+		}
+		velocities[0] = 0;
+		for (int i = 1; i < count; i++) {
+			double step = distances[i] - distances[i - 1];
+			velocities[i] = Math.min(velocities[i],
+					Math.sqrt(velocities[i - 1] * velocities[i - 1] + 2 * maxAcceleration * step));
+		}
+		velocities[count - 1] = 0;
+		for (int i = count - 2; i >= 0; i--) {
+			double step = distances[i + 1] - distances[i];
+			velocities[i] = Math.min(velocities[i],
+					Math.sqrt(velocities[i + 1] * velocities[i + 1] + 2 * maxAcceleration * step));
+		}
+
+		double[] times = new double[count];
+		for (int i = 1; i < count; i++) {
+			double step = distances[i] - distances[i - 1];
+			double averageVelocity = (velocities[i] + velocities[i - 1]) / 2;
+			times[i] = times[i - 1] + (averageVelocity > 0 ? step / averageVelocity : 0);
+		}
+
+		return new Trajectory(times, trim(xs, count), trim(ys, count), trim(headings, count), velocities,
+				trim(curvatures, count));
+	}
+
+	/**
+	 * Computes a 64 bit FNV-1a hash of this generator's limits and the given
+	 * waypoints, which identifies the trajectory
+	 * {@link #generate(Pose...)} would return for them.
+	 *
+	 * @param waypoints
+	 *            the waypoints of the trajectory
+	 * @return the hash of the trajectory.
+	 */
+	public long hash(Pose... waypoints) {
+		long hash = 0xcbf29ce484222325L;
+		hash = hash(hash, Trajectory.VERSION);
+		hash = hash(hash, Double.doubleToLongBits(maxVelocity));
+		hash = hash(hash, Double.doubleToLongBits(maxAcceleration));
+		hash = hash(hash, Double.doubleToLongBits(maxCentripetalAcceleration));
+		hash = hash(hash, samplesPerSegment);
+		for (Pose waypoint : waypoints) {
+			hash = hash(hash, Double.doubleToLongBits(waypoint.getX()));
+			hash = hash(hash, Double.doubleToLongBits(waypoint.getY()));
+			hash = hash(hash, Double.doubleToLongBits(waypoint.getHeading()));
+		}
+		return hash;
+	}
+
+	private static long hash(long hash, long value) {
+		for (int i = 0; i < 8; i++) {
+			hash ^= (value >>> (i * 8)) & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private static double[] trim(double[] values, int length) {
+		if (values.length == length) {
+			return values;
+		}
+		double[] trimmed = new double[length];
+		System.arraycopy(values, 0, trimmed, 0, length);
+		return trimmed;
+	}
+}
@@ -0,0 +1,9 @@
+/**
+ * com.spikes2212.genericsubsystems.drivetrains.trajectories contains classes which describe paths for a drivetrain
+ * to follow, timed from their start. <br>
+ *
+ * For example - a {@link com.spikes2212.genericsubsystems.drivetrains.trajectories.Trajectory} that a
+ * {@link com.spikes2212.genericsubsystems.drivetrains.commands.FollowTrajectory} command drives a
+ * {@link com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain} along.
+ */
+package com.spikes2212.genericsubsystems.drivetrains.trajectories;
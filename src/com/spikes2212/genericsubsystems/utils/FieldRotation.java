@@ -0,0 +1,66 @@
+package com.spikes2212.genericsubsystems.utils;
+
+/**
+ * This class rotates the speeds a driver gives relative to the field into
+ * speeds relative to a drivetrain, for drivetrains which can move sideways
+ * and be driven field oriented.
+ *
+ * <br>
+ * <br>
+ * The heading is given to {@link #setHeading(double)} every loop, and the
+ * speeds are then rotated using {@link #rotateY(double, double)} and
+ * {@link #rotateX(double, double)}. The sine and cosine of the heading are
+ * only computed again when the heading changes, and rotating doesn't allocate
+ * memory.
+ */
+public class FieldRotation {
+
+	private double lastHeading = 0;
+	private double headingCos = 1;
+	private double headingSin = 0;
+
+	/**
+	 * Sets the heading the speeds are rotated by.
+	 *
+	 * @param heading
+	 *            the heading of the drivetrain in degrees, positive
+	 *            counter-clockwise. Most FRC gyros are positive clockwise, so
+	 *            their angle should be negated.
+	 */
+	public void setHeading(double heading) {
+		if (heading != lastHeading) {
+			double radians = Math.toRadians(heading);
+			headingCos = Math.cos(radians);
+			headingSin = Math.sin(radians);
+			lastHeading = heading;
+		}
+	}
+
+	/**
+	 * Gets the forward speed of the drivetrain that moves it with the given
+	 * speeds relative to the field.
+	 *
+	 * @param speedY
+	 *            the speed to move away from the driver with
+	 * @param speedX
+	 *            the speed to move to the driver's right with
+	 * @return the speed the drivetrain should move forward with.
+	 */
+	public double rotateY(double speedY, double speedX) {
+		return speedY * headingCos - speedX * headingSin;
+	}
+
+	/**
+	 * Gets the sideways speed of the drivetrain that moves it with the given
+	 * speeds relative to the field.
+	 *
+	 * @param speedY
+	 *            the speed to move away from the driver with
+	 * @param speedX
+	 *            the speed to move to the driver's right with
+	 * @return the speed the drivetrain should move to its right with.
+	 */
+	public double rotateX(double speedY, double speedX) {
+		return speedX * headingCos + speedY * headingSin;
+	}
+}
@@ -0,0 +1,118 @@
+package com.spikes2212.genericsubsystems.utils;
+
+import java.util.function.Supplier;
+
+import com.spikes2212.utils.Clock;
+
+/**
+ * This class keeps a drivetrain facing the same way while the driver isn't
+ * turning it, so it doesn't drift when it is pushed or when one of its wheels
+ * slips.
+ *
+ * <br>
+ * <br>
+ * Every loop, the driver's rotation speed is given to
+ * {@link #calculate(double)}. While it is outside of the deadband it is
+ * returned as it is. Once it is back inside, the current heading is kept, and
+ * a rotation speed that turns the drivetrain back to it is returned instead.
+ *
+ * <br>
+ * <br>
+ * The heading must increase when the drivetrain turns with a positive rotation
+ * speed. For drivetrains that turn left with positive values, such as
+ * {@link com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain}, this
+ * means positive counter-clockwise, so the angle of most FRC gyros should be
+ * negated.
+ */
+public class HeadingHold {
+
+	protected final Supplier<Double> headingSupplier;
+	protected double kP;
+	protected double kD;
+	protected double deadband;
+
+	private boolean holding = false;
+	private double targetHeading;
+	private double lastHeading;
+	private double lastTime;
+
+	/**
+	 * Constructs a new {@link HeadingHold}.
+	 *
+	 * @param headingSupplier
+	 *            a {@link Supplier} supplying the heading, in degrees
+	 * @param kP
+	 *            the rotation speed given for each degree of error
+	 * @param kD
+	 *            the rotation speed taken away for each degree per second the
+	 *            drivetrain turns in
+	 * @param deadband
+	 *            the largest rotation speed which is still considered as the
+	 *            driver not turning
+	 */
+	public HeadingHold(Supplier<Double> headingSupplier, double kP, double kD, double deadband) {
+		this.headingSupplier = headingSupplier;
+		this.kP = kP;
+		this.kD = kD;
+		this.deadband = deadband;
+	}
+
+	/**
+	 * Gets the rotation speed to turn the drivetrain with.
+	 *
+	 * @param rotate
+	 *            the rotation speed the driver asked for
+	 * @return the driver's rotation speed when it is outside of the deadband,
+	 *         and otherwise the rotation speed that turns back to the kept
+	 *         heading.
+	 */
+	public double calculate(double rotate) {
+		double heading = headingSupplier.get();
+		double time = Clock.now();
+		double output = rotate;
+		if (Math.abs(rotate) > deadband) {
+			holding = false;
+		} else if (!holding) {
+			holding = true;
+			targetHeading = heading;
+			output = 0;
+		} else {
+			double error = Math.IEEEremainder(targetHeading - heading, 360);
+			double change = Math.IEEEremainder(heading - lastHeading, 360);
+			double rate = time > lastTime ? change / (time - lastTime) : 0;
+			output = kP * error - kD * rate;
+		}
+		lastHeading = heading;
+		lastTime = time;
+		return output;
+	}
+
+	/**
+	 * Stops keeping the current heading, so the heading is kept again from the
+	 * next call to {@link #calculate(double)} with the driver not turning. This
+	 * should be called when the drivetrain starts being driven, so an old
+	 * heading isn't returned to.
+	 */
+	public void reset() {
+		holding = false;
+	}
+
+	/**
+	 * @return true if a heading is being kept.
+	 */
+	public boolean isHolding() {
+		return holding;
+	}
+
+	public void setKP(double kP) {
+		this.kP = kP;
+	}
+
+	public void setKD(double kD) {
+		this.kD = kD;
+	}
+
+	public void setDeadband(double deadband) {
+		this.deadband = deadband;
+	}
+}
@@ -0,0 +1,132 @@
+package com.spikes2212.simulation;
+
+/**
+ * This class represents a brushed DC motor, or a gearbox of identical motors,
+ * by the values from its data sheet.
+ *
+ * <br>
+ * <br>
+ * The torque of a DC motor drops linearly from its stall torque when it is
+ * stopped to 0 at its free speed, and grows linearly with the voltage it is
+ * given. Speeds are in radians per second and torques in newton meters, at the
+ * motor's shaft.
+ */
+public class DCMotor {
+
+	/**
+	 * The voltage the data sheet values are measured at.
+	 */
+	public static final double NOMINAL_VOLTAGE = 12;
+
+	private final double stallTorque;
+	private final double stallCurrent;
+	private final double freeSpeed;
+	private final double freeCurrent;
+	private final double resistance;
+	private final double kV;
+	private final double kT;
+
+	/**
+	 * Constructs a new {@link DCMotor}.
+	 *
+	 * @param stallTorque
+	 *            the torque when stopped at the nominal voltage, in newton meters
+	 * @param stallCurrent
+	 *            the current when stopped at the nominal voltage, in amps
+	 * @param freeSpeed
+	 *            the speed without load at the nominal voltage, in RPM
+	 * @param freeCurrent
+	 *            the current without load at the nominal voltage, in amps
+	 */
+	public DCMotor(double stallTorque, double stallCurrent, double freeSpeed, double freeCurrent) {
+		this.stallTorque = stallTorque;
+		this.stallCurrent = stallCurrent;
+		this.freeSpeed = freeSpeed * 2 * Math.PI / 60;
+		this.freeCurrent = freeCurrent;
+		this.resistance = NOMINAL_VOLTAGE / stallCurrent;
+		this.kV = this.freeSpeed / (NOMINAL_VOLTAGE - resistance * freeCurrent);
+		this.kT = stallTorque / stallCurrent;
+	}
+
+	/**
+	 * @return a CIM motor.
+	 */
+	public static DCMotor cim() {
+		return new DCMotor(2.42, 133, 5310, 2.7);
+	}
+
+	/**
+	 * @return a MiniCIM motor.
+	 */
+	public static DCMotor miniCim() {
+		return new DCMotor(1.41, 89, 5840, 3);
+	}
+
+	/**
+	 * @return a BAG motor.
+	 */
+	public static DCMotor bag() {
+		return new DCMotor(0.43, 53, 13180, 1.8);
+	}
+
+	/**
+	 * @return a 775pro motor.
+	 */
+	public static DCMotor vex775Pro() {
+		return new DCMotor(0.71, 134, 18730, 0.7);
+	}
+
+	/**
+	 * Gets a gearbox of the given amount of motors like this one, which share
+	 * one shaft.
+	 *
+	 * @param motors
+	 *            the amount of motors
+	 * @return the {@link DCMotor} that acts like all of the motors together.
+	 */
+	public DCMotor gearbox(int motors) {
+		return new DCMotor(stallTorque * motors, stallCurrent * motors, freeSpeed * 60 / (2 * Math.PI),
+				freeCurrent * motors);
+	}
+
+	/**
+	 * Gets the torque of the motor.
+	 *
+	 * @param voltage
+	 *            the voltage given to the motor
+	 * @param speed
+	 *            the current speed of the motor, in radians per second
+	 * @return the torque, in newton meters.
+	 */
+	public double getTorque(double voltage, double speed) {
+		return kT * getCurrent(voltage, speed);
+	}
+
+	/**
+	 * Gets the current the motor draws.
+	 *
+	 * @param voltage
+	 *            the voltage given to the motor
+	 * @param speed
+	 *            the current speed of the motor, in radians per second
+	 * @return the current, in amps.
+	 */
+	public double getCurrent(double voltage, double speed) {
+		return (voltage - speed / kV) / resistance;
+	}
+
+	/**
+	 * @return the speed without load at the nominal voltage, in radians per
+	 *         second.
+	 */
+	public double getFreeSpeed() {
+		return freeSpeed;
+	}
+
+	/**
+	 * @return the torque when stopped at the nominal voltage, in newton meters.
+	 */
+	public double getStallTorque() {
+		return stallTorque;
+	}
+}
@@ -0,0 +1,112 @@
+package com.spikes2212.simulation;
+
+import java.util.function.Consumer;
+
+/**
+ * This class is a physical model of an H drive: a tank drivetrain with an
+ * additional gearbox driving a wheel sideways. Its outputs can be given to a
+ * {@link com.spikes2212.genericsubsystems.drivetrains.HolonomicDrivetrain}
+ * instead of speed controllers.
+ *
+ * <br>
+ * <br>
+ * Sideways distances and speeds are positive to the right, as in
+ * {@link com.spikes2212.genericsubsystems.drivetrains.HolonomicDrivetrain}.
+ *
+ * @see SimulatedTankDrivetrain
+ */
+public class SimulatedHolonomicDrivetrain extends SimulatedTankDrivetrain {
+
+	protected final DCMotor xMotor;
+	protected final double xGearing;
+
+	protected volatile double xSpeed = 0;
+
+	protected double lateralVelocity = 0;
+	protected double xDistance = 0;
+
+	/**
+	 * Constructs a new {@link SimulatedHolonomicDrivetrain} at rest. The
+	 * sideways wheel uses the same wheel radius as the other wheels.
+	 *
+	 * @param motor
+	 *            the {@link DCMotor} of each side's gearbox
+	 * @param gearing
+	 *            the amount of motor rotations for each rotation of the side
+	 *            wheels
+	 * @param xMotor
+	 *            the {@link DCMotor} of the sideways gearbox
+	 * @param xGearing
+	 *            the amount of motor rotations for each rotation of the
+	 *            sideways wheel
+	 * @param wheelRadius
+	 *            the radius of the wheels, in meters
+	 * @param trackWidth
+	 *            the distance between the left and right wheels, in meters
+	 * @param mass
+	 *            the mass of the robot, in kilograms
+	 * @param momentOfInertia
+	 *            the moment of inertia of the robot around its center, in
+	 *            kilograms times meters squared
+	 */
+	public SimulatedHolonomicDrivetrain(DCMotor motor, double gearing, DCMotor xMotor, double xGearing,
+			double wheelRadius, double trackWidth, double mass, double momentOfInertia) {
+		super(motor, gearing, wheelRadius, trackWidth, mass, momentOfInertia);
+		this.xMotor = xMotor;
+		this.xGearing = xGearing;
+	}
+
+	/**
+	 * @return a {@link Consumer} that sets the speed of the sideways gearbox,
+	 *         as a speed controller would.
+	 */
+	public Consumer<Double> getXOutput() {
+		return (speed) -> xSpeed = Math.max(-1, Math.min(1, speed));
+	}
+
+	/**
+	 * @return a {@link Consumer} that sets the speed of both sides together,
+	 *         as the forward output of a holonomic drivetrain.
+	 */
+	public Consumer<Double> getYOutput() {
+		return (speed) -> {
+			leftSpeed = Math.max(-1, Math.min(1, speed));
+			rightSpeed = leftSpeed;
+		};
+	}
+
+	@Override
+	public void step(double dt) {
+		double motorSpeed = lateralVelocity / wheelRadius * xGearing;
+		double force = xMotor.getTorque(xSpeed * DCMotor.NOMINAL_VOLTAGE, motorSpeed) * xGearing / wheelRadius;
+		double startHeading = heading;
+		super.step(dt);
+		lateralVelocity += (force - linearFriction * lateralVelocity) / mass * dt;
+		double middleHeading = (startHeading + heading) / 2;
+		x += lateralVelocity * Math.sin(middleHeading) * dt;
+		y -= lateralVelocity * Math.cos(middleHeading) * dt;
+		xDistance += lateralVelocity * dt;
+	}
+
+	@Override
+	public void reset(double x, double y, double heading) {
+		super.reset(x, y, heading);
+		lateralVelocity = 0;
+	}
+
+	/**
+	 * @return the sensor of the distance the sideways wheel moved, in meters,
+	 *         positive to the right.
+	 */
+	public SimulatedSensor getXSensor() {
+		return new SimulatedSensor(() -> xDistance, () -> lateralVelocity);
+	}
+
+	/**
+	 * @return the sideways speed of the robot, in meters per second, positive
+	 *         to the right.
+	 */
+	public double getLateralVelocity() {
+		return lateralVelocity;
+	}
+}
@@ -0,0 +1,197 @@
+package com.spikes2212.simulation;
+
+import java.util.function.Consumer;
+
+/**
+ * This class is a physical model of a mechanism that rotates one output shaft
+ * using a {@link DCMotor} through a gear reduction, such as an arm, an
+ * elevator's drum or a shooter's wheel. It can be given as the
+ * {@link Consumer} of a {@link com.spikes2212.genericsubsystems.BasicSubsystem}
+ * instead of a speed controller.
+ *
+ * <br>
+ * <br>
+ * The model includes the inertia of everything the shaft moves, a constant
+ * load such as the weight of an elevator's carriage, the weight of an arm
+ * which depends on its angle, and static and viscous friction. Positions are
+ * in radians of the output shaft from where the model started, and positive
+ * speeds turn it in the positive direction.
+ *
+ * @see DCMotor
+ * @see Simulation
+ */
+public class SimulatedMechanism implements Consumer<Double>, SimulationModel {
+
+	private final DCMotor motor;
+	private final double gearing;
+	private final double inertia;
+	private double loadTorque = 0;
+	private double armTorque = 0;
+	private double staticFriction = 0;
+	private double viscousFriction = 0;
+	private double minPosition = Double.NEGATIVE_INFINITY;
+	private double maxPosition = Double.POSITIVE_INFINITY;
+
+	private volatile double speed = 0;
+	private double position = 0;
+	private double velocity = 0;
+
+	/**
+	 * Constructs a new {@link SimulatedMechanism} at rest.
+	 *
+	 * @param motor
+	 *            the {@link DCMotor} driving the mechanism
+	 * @param gearing
+	 *            the amount of motor rotations for each rotation of the output
+	 *            shaft
+	 * @param inertia
+	 *            the moment of inertia of everything the output shaft moves, in
+	 *            kilograms times meters squared
+	 */
+	public SimulatedMechanism(DCMotor motor, double gearing, double inertia) {
+		this.motor = motor;
+		this.gearing = gearing;
+		this.inertia = inertia;
+	}
+
+	/**
+	 * Sets a constant torque against the positive direction, such as the
+	 * weight of an elevator's carriage times the radius of its drum.
+	 *
+	 * @param loadTorque
+	 *            the torque, in newton meters
+	 */
+	public void setLoadTorque(double loadTorque) {
+		this.loadTorque = loadTorque;
+	}
+
+	/**
+	 * Sets the torque of an arm's weight when it is horizontal. The torque
+	 * changes with the cosine of the position, so position 0 should be
+	 * horizontal.
+	 *
+	 * @param armTorque
+	 *            the arm's weight times the distance to its center of mass, in
+	 *            newton meters
+	 */
+	public void setArmTorque(double armTorque) {
+		this.armTorque = armTorque;
+	}
+
+	/**
+	 * Sets the friction of the mechanism.
+	 *
+	 * @param staticFriction
+	 *            the torque needed to start moving, in newton meters
+	 * @param viscousFriction
+	 *            the torque against each radian per second of speed
+	 */
+	public void setFriction(double staticFriction, double viscousFriction) {
+		this.staticFriction = staticFriction;
+		this.viscousFriction = viscousFriction;
+	}
+
+	/**
+	 * Sets hard stops which the mechanism can't move past.
+	 *
+	 * @param minPosition
+	 *            the lowest position, in radians
+	 * @param maxPosition
+	 *            the highest position, in radians
+	 */
+	public void setLimits(double minPosition, double maxPosition) {
+		this.minPosition = minPosition;
+		this.maxPosition = maxPosition;
+	}
+
+	/**
+	 * Sets the speed given to the motor, as a speed controller would.
+	 *
+	 * @param speed
+	 *            the speed, between -1 and 1
+	 */
+	@Override
+	public void accept(Double speed) {
+		this.speed = Math.max(-1, Math.min(1, speed));
+	}
+
+	@Override
+	public void step(double dt) {
+		double voltage = speed * DCMotor.NOMINAL_VOLTAGE;
+		double driveTorque = motor.getTorque(voltage, velocity * gearing) * gearing;
+		double netTorque = driveTorque - loadTorque - armTorque * Math.cos(position) - viscousFriction * velocity;
+		if (velocity == 0 && Math.abs(netTorque) <= staticFriction) {
+			netTorque = 0;
+		} else {
+			netTorque -= staticFriction * Math.signum(velocity != 0 ? velocity : netTorque);
+		}
+		double newVelocity = velocity + netTorque / inertia * dt;
+		if (staticFriction > 0 && velocity != 0 && Math.signum(newVelocity) != Math.signum(velocity)) {
+			newVelocity = 0;
+		}
+		velocity = newVelocity;
+		position += velocity * dt;
+		if (position <= minPosition) {
+			position = minPosition;
+			velocity = Math.max(0, velocity);
+		} else if (position >= maxPosition) {
+			position = maxPosition;
+			velocity = Math.min(0, velocity);
+		}
+	}
+
+	/**
+	 * Moves the mechanism to the given position and stops it.
+	 *
+	 * @param position
+	 *            the new position, in radians
+	 */
+	public void reset(double position) {
+		this.position = position;
+		this.velocity = 0;
+	}
+
+	/**
+	 * @return the position of the output shaft, in radians.
+	 */
+	public double getPosition() {
+		return position;
+	}
+
+	/**
+	 * @return the speed of the output shaft, in radians per second.
+	 */
+	public double getVelocity() {
+		return velocity;
+	}
+
+	/**
+	 * @return the current the motor draws, in amps.
+	 */
+	public double getCurrent() {
+		return motor.getCurrent(speed * DCMotor.NOMINAL_VOLTAGE, velocity * gearing);
+	}
+
+	/**
+	 * Gets a sensor of the output shaft, such as an encoder or a
+	 * potentiometer.
+	 *
+	 * @param unitsPerRadian
+	 *            the units the sensor measures for each radian, for example the
+	 *            drum's radius to measure an elevator's height
+	 * @return the {@link SimulatedSensor} of the output shaft.
+	 */
+	public SimulatedSensor getSensor(double unitsPerRadian) {
+		return new SimulatedSensor(() -> position * unitsPerRadian, () -> velocity * unitsPerRadian);
+	}
+
+	/**
+	 * @param position
+	 *            the position to check, in radians
+	 * @return true if the mechanism is at or past the given position, in the
+	 *         direction of the given position from 0.
+	 */
+	public boolean isPast(double position) {
+		return position >= 0 ? this.position >= position : this.position <= position;
+	}
+}
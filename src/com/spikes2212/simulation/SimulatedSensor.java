@@ -0,0 +1,71 @@
+package com.spikes2212.simulation;
+
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+import edu.wpi.first.wpilibj.PIDSource;
+import edu.wpi.first.wpilibj.PIDSourceType;
+
+/**
+ * This class is a sensor of a simulated model, such as an encoder or a gyro.
+ * It can be used as a <a href=
+ * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSource</a>,
+ * which gives the position or the rate depending on its type, or as a
+ * {@link Supplier} of the position.
+ */
+public class SimulatedSensor implements PIDSource, Supplier<Double> {
+
+	private final DoubleSupplier position;
+	private final DoubleSupplier rate;
+	private PIDSourceType type = PIDSourceType.kDisplacement;
+
+	/**
+	 * Constructs a new {@link SimulatedSensor}.
+	 *
+	 * @param position
+	 *            a {@link DoubleSupplier} supplying the position of the model
+	 * @param rate
+	 *            a {@link DoubleSupplier} supplying the rate of the model
+	 */
+	public SimulatedSensor(DoubleSupplier position, DoubleSupplier rate) {
+		this.position = position;
+		this.rate = rate;
+	}
+
+	@Override
+	public void setPIDSourceType(PIDSourceType type) {
+		this.type = type;
+	}
+
+	@Override
+	public PIDSourceType getPIDSourceType() {
+		return type;
+	}
+
+	@Override
+	public double pidGet() {
+		return type == PIDSourceType.kRate ? getRate() : getPosition();
+	}
+
+	/**
+	 * @return the position of the model.
+	 */
+	public double getPosition() {
+		return position.getAsDouble();
+	}
+
+	/**
+	 * @return the rate of the model.
+	 */
+	public double getRate() {
+		return rate.getAsDouble();
+	}
+
+	/**
+	 * @return the position of the model.
+	 */
+	@Override
+	public Double get() {
+		return getPosition();
+	}
+}
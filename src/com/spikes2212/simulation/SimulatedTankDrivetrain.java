@@ -0,0 +1,204 @@
+package com.spikes2212.simulation;
+
+import java.util.function.Consumer;
+
+/**
+ * This class is a physical model of a tank drivetrain, with one gearbox on
+ * each side. Its outputs can be given to a
+ * {@link com.spikes2212.genericsubsystems.drivetrains.TankDrivetrain} instead
+ * of speed controllers, and its sensors can be given to commands and to
+ * {@link com.spikes2212.genericsubsystems.drivetrains.odometry.DifferentialOdometry}.
+ *
+ * <br>
+ * <br>
+ * The model includes the mass and the moment of inertia of the robot, and
+ * friction against moving and turning. The wheels are assumed not to slip.
+ * Distances are in meters and the heading is in degrees, positive
+ * counter-clockwise, starting at 0.
+ *
+ * @see DCMotor
+ * @see Simulation
+ */
+public class SimulatedTankDrivetrain implements SimulationModel {
+
+	protected final DCMotor motor;
+	protected final double gearing;
+	protected final double wheelRadius;
+	protected final double trackWidth;
+	protected final double mass;
+	protected final double momentOfInertia;
+	protected double linearFriction = 0;
+	protected double angularFriction = 0;
+
+	protected volatile double leftSpeed = 0;
+	protected volatile double rightSpeed = 0;
+
+	protected double x = 0;
+	protected double y = 0;
+	protected double heading = 0;
+	protected double velocity = 0;
+	protected double angularVelocity = 0;
+	protected double leftDistance = 0;
+	protected double rightDistance = 0;
+
+	/**
+	 * Constructs a new {@link SimulatedTankDrivetrain} at rest.
+	 *
+	 * @param motor
+	 *            the {@link DCMotor} of each side's gearbox, usually made using
+	 *            {@link DCMotor#gearbox(int)}
+	 * @param gearing
+	 *            the amount of motor rotations for each rotation of the wheels
+	 * @param wheelRadius
+	 *            the radius of the wheels, in meters
+	 * @param trackWidth
+	 *            the distance between the left and right wheels, in meters
+	 * @param mass
+	 *            the mass of the robot, in kilograms
+	 * @param momentOfInertia
+	 *            the moment of inertia of the robot around its center, in
+	 *            kilograms times meters squared
+	 */
+	public SimulatedTankDrivetrain(DCMotor motor, double gearing, double wheelRadius, double trackWidth, double mass,
+			double momentOfInertia) {
+		this.motor = motor;
+		this.gearing = gearing;
+		this.wheelRadius = wheelRadius;
+		this.trackWidth = trackWidth;
+		this.mass = mass;
+		this.momentOfInertia = momentOfInertia;
+	}
+
+	/**
+	 * Sets the friction of the drivetrain.
+	 *
+	 * @param linearFriction
+	 *            the force against each meter per second of speed, in newtons
+	 * @param angularFriction
+	 *            the torque against each radian per second of turning, in
+	 *            newton meters
+	 */
+	public void setFriction(double linearFriction, double angularFriction) {
+		this.linearFriction = linearFriction;
+		this.angularFriction = angularFriction;
+	}
+
+	/**
+	 * @return a {@link Consumer} that sets the speed of the left side, as a
+	 *         speed controller would.
+	 */
+	public Consumer<Double> getLeftOutput() {
+		return (speed) -> leftSpeed = Math.max(-1, Math.min(1, speed));
+	}
+
+	/**
+	 * @return a {@link Consumer} that sets the speed of the right side, as a
+	 *         speed controller would.
+	 */
+	public Consumer<Double> getRightOutput() {
+		return (speed) -> rightSpeed = Math.max(-1, Math.min(1, speed));
+	}
+
+	@Override
+	public void step(double dt) {
+		double halfTrack = trackWidth / 2;
+		double leftForce = getForce(leftSpeed, velocity - angularVelocity * halfTrack);
+		double rightForce = getForce(rightSpeed, velocity + angularVelocity * halfTrack);
+		double acceleration = (leftForce + rightForce - linearFriction * velocity) / mass;
+		double angularAcceleration = ((rightForce - leftForce) * halfTrack - angularFriction * angularVelocity)
+				/ momentOfInertia;
+		velocity += acceleration * dt;
+		angularVelocity += angularAcceleration * dt;
+		double middleHeading = heading + angularVelocity * dt / 2;
+		x += velocity * Math.cos(middleHeading) * dt;
+		y += velocity * Math.sin(middleHeading) * dt;
+		heading += angularVelocity * dt;
+		leftDistance += (velocity - angularVelocity * halfTrack) * dt;
+		rightDistance += (velocity + angularVelocity * halfTrack) * dt;
+	}
+
+	/**
+	 * Gets the force one gearbox pushes the robot with.
+	 *
+	 * @param speed
+	 *            the speed given to the gearbox, between -1 and 1
+	 * @param wheelVelocity
+	 *            the speed of the gearbox's wheels along the ground, in meters
+	 *            per second
+	 * @return the force, in newtons.
+	 */
+	protected double getForce(double speed, double wheelVelocity) {
+		double motorSpeed = wheelVelocity / wheelRadius * gearing;
+		return motor.getTorque(speed * DCMotor.NOMINAL_VOLTAGE, motorSpeed) * gearing / wheelRadius;
+	}
+
+	/**
+	 * Moves the drivetrain to the given pose and stops it. The distance
+	 * sensors are not changed.
+	 *
+	 * @param x
+	 *            the new x coordinate, in meters
+	 * @param y
+	 *            the new y coordinate, in meters
+	 * @param heading
+	 *            the new heading, in degrees
+	 */
+	public void reset(double x, double y, double heading) {
+		this.x = x;
+		this.y = y;
+		this.heading = Math.toRadians(heading);
+		this.velocity = 0;
+		this.angularVelocity = 0;
+	}
+
+	/**
+	 * @return the sensor of the distance the left wheels moved, in meters.
+	 */
+	public SimulatedSensor getLeftSensor() {
+		return new SimulatedSensor(() -> leftDistance, () -> velocity - angularVelocity * trackWidth / 2);
+	}
+
+	/**
+	 * @return the sensor of the distance the right wheels moved, in meters.
+	 */
+	public SimulatedSensor getRightSensor() {
+		return new SimulatedSensor(() -> rightDistance, () -> velocity + angularVelocity * trackWidth / 2);
+	}
+
+	/**
+	 * @return the sensor of the heading, in degrees, positive
+	 *         counter-clockwise. Unlike most gyros, it doesn't need to be
+	 *         negated.
+	 */
+	public SimulatedSensor getHeadingSensor() {
+		return new SimulatedSensor(() -> Math.toDegrees(heading), () -> Math.toDegrees(angularVelocity));
+	}
+
+	/**
+	 * @return the true x coordinate of the robot, in meters.
+	 */
+	public double getX() {
+		return x;
+	}
+
+	/**
+	 * @return the true y coordinate of the robot, in meters.
+	 */
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * @return the true heading of the robot, in degrees.
+	 */
+	public double getHeading() {
+		return Math.toDegrees(heading);
+	}
+
+	/**
+	 * @return the forward speed of the robot, in meters per second.
+	 */
+	public double getVelocity() {
+		return velocity;
+	}
+}
@@ -0,0 +1,145 @@
+package com.spikes2212.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.spikes2212.utils.Clock;
+import com.spikes2212.utils.ControlLoop;
+import com.spikes2212.utils.RealTimeClock;
+import com.spikes2212.utils.VirtualClock;
+
+/**
+ * This class runs {@link SimulationModel}s together with the robot's code
+ * using a {@link VirtualClock}, so a robot can be simulated faster than real
+ * time, without a roboRIO and without waiting.
+ *
+ * <br>
+ * <br>
+ * While it is started, the simulation's clock is the default {@link Clock},
+ * and the {@link ControlLoop} is in manual mode and runs every
+ * {@link ControlLoop#PERIOD} seconds of simulated time. Each
+ * {@link #step()} moves the models forward by one robot loop, in smaller
+ * substeps so fast mechanisms stay accurate, and then runs the robot loop
+ * given to {@link #run(double, Runnable)}, usually the scheduler.
+ *
+ * @see SimulationModel
+ * @see VirtualClock
+ */
+public class Simulation {
+
+	/**
+	 * The default amount of substeps each model is moved by in every step.
+	 */
+	public static final int DEFAULT_SUBSTEPS = 20;
+
+	private final VirtualClock clock = new VirtualClock();
+	private final List<SimulationModel> models = new ArrayList<>();
+	private final double period;
+	private final int substeps;
+	private double nextControlLoop = 0;
+
+	/**
+	 * Constructs a new {@link Simulation}.
+	 *
+	 * @param period
+	 *            the time of each robot loop, in seconds, usually 0.02
+	 * @param substeps
+	 *            the amount of substeps each model is moved by in every step
+	 */
+	public Simulation(double period, int substeps) {
+		if (period <= 0 || substeps < 1) {
+			throw new IllegalArgumentException("Cannot construct Simulation without a positive period");
+		}
+		this.period = period;
+		this.substeps = substeps;
+	}
+
+	/**
+	 * Constructs a new {@link Simulation} using {@link #DEFAULT_SUBSTEPS}.
+	 *
+	 * @param period
+	 *            the time of each robot loop, in seconds, usually 0.02
+	 */
+	public Simulation(double period) {
+		this(period, DEFAULT_SUBSTEPS);
+	}
+
+	/**
+	 * Adds a model to the simulation.
+	 *
+	 * @param model
+	 *            the {@link SimulationModel} to step
+	 */
+	public void add(SimulationModel model) {
+		models.add(model);
+	}
+
+	/**
+	 * Makes the simulation's clock the default {@link Clock}, and puts the
+	 * {@link ControlLoop} in manual mode. This should be called before the
+	 * robot's code is constructed.
+	 */
+	public void start() {
+		Clock.setDefault(clock);
+		ControlLoop.setManual(true);
+		nextControlLoop = clock.getTime();
+	}
+
+	/**
+	 * Moves the simulation forward by one robot loop, running the
+	 * {@link ControlLoop} whenever its period passes.
+	 */
+	public void step() {
+		double dt = period / substeps;
+		for (int i = 0; i < substeps; i++) {
+			for (int j = 0; j < models.size(); j++) {
+				models.get(j).step(dt);
+			}
+			clock.step(dt);
+			while (clock.getTime() >= nextControlLoop) {
+				ControlLoop.runOnce();
+				nextControlLoop += ControlLoop.PERIOD;
+			}
+		}
+	}
+
+	/**
+	 * Runs the simulation for the given amount of simulated time.
+	 *
+	 * @param seconds
+	 *            the simulated time to run for, in seconds
+	 * @param robotLoop
+	 *            the code to run after every step, such as
+	 *            {@code Scheduler.getInstance()::run}
+	 */
+	public void run(double seconds, Runnable robotLoop) {
+		double endTime = clock.getTime() + seconds;
+		while (clock.getTime() < endTime - period / 2) {
+			step();
+			robotLoop.run();
+		}
+	}
+
+	/**
+	 * Restores the real time {@link Clock} and the {@link ControlLoop}'s
+	 * thread.
+	 */
+	public void stop() {
+		Clock.setDefault(new RealTimeClock());
+		ControlLoop.setManual(false);
+	}
+
+	/**
+	 * @return the simulation's {@link VirtualClock}.
+	 */
+	public VirtualClock getClock() {
+		return clock;
+	}
+
+	/**
+	 * @return the simulated time, in seconds.
+	 */
+	public double getTime() {
+		return clock.getTime();
+	}
+}
@@ -0,0 +1,19 @@
+package com.spikes2212.simulation;
+
+/**
+ * This interface represents a physical model which can be moved forward in
+ * time by a {@link Simulation}.
+ *
+ * @see Simulation
+ */
+@FunctionalInterface
+public interface SimulationModel {
+
+	/**
+	 * Moves the model forward in time.
+	 *
+	 * @param dt
+	 *            the time to move forward by, in seconds
+	 */
+	void step(double dt);
+}
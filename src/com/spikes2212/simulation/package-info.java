@@ -0,0 +1,14 @@
+/**
+ * com.spikes2212.simulation contains physical models of motors, mechanisms and drivetrains, which can replace the
+ * speed controllers and sensors of a robot so its commands can be run without one. <br>
+ *
+ * Each model gives {@link java.util.function.Consumer}s to construct subsystems with, and
+ * {@link com.spikes2212.simulation.SimulatedSensor}s to read. A {@link com.spikes2212.simulation.Simulation} steps
+ * all of the models together with a {@link com.spikes2212.utils.VirtualClock}, as fast as the computer can. <br>
+ *
+ * The library's PID commands use {@link com.spikes2212.utils.PIDLoop}, which runs on the
+ * {@link com.spikes2212.utils.ControlLoop}, so they are stepped together with the models. Note that wpilib's
+ * PIDController and Notifier need the HAL and run in real time, so commands using them directly are not sped up by
+ * the simulation.
+ */
+package com.spikes2212.simulation;
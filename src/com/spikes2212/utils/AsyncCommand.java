@@ -0,0 +1,297 @@
+package com.spikes2212.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * This command starts a task returning a {@link CompletableFuture} and
+ * finishes when the future completes, so slow work such as reading files or
+ * loading trajectories runs without blocking the scheduler. The result of the
+ * task can be read using {@link #getResult()}, for example as a
+ * {@link Supplier} given to a following command.
+ *
+ * <br>
+ * <br>
+ * Tasks can be chained using {@link #then(Function)} and
+ * {@link #thenApply(Function)}, and run together using
+ * {@link #all(AsyncCommand...)}.
+ *
+ * <br>
+ * <br>
+ * When this command ends or is interrupted, every future it started is
+ * cancelled, including the tasks of the commands it was built from. Work
+ * running on this class's threads is interrupted, so long calculations should
+ * check {@link Thread#interrupted()}. Futures returned by a task given to the
+ * constructor are only cancelled, and whether that stops their work is up to
+ * the task.
+ *
+ * @param <T>
+ *            the type of the task's result
+ *
+ * @see CompletableFuture
+ * @see RunnableCommand
+ */
+public class AsyncCommand<T> extends ProfiledCommand {
+
+	private static final int THREAD_COUNT = 2;
+	private static final AtomicInteger createdThreads = new AtomicInteger();
+
+	/**
+	 * The threads the calculations of {@link #supplying(Supplier)} and
+	 * {@link #thenApply(Function)} run on. They are separate from the threads
+	 * of {@link RunnableCommand}s, so long runnables don't hold them up, and
+	 * idle threads are stopped after a while.
+	 */
+	private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(THREAD_COUNT, THREAD_COUNT, 30,
+			TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+				Thread thread = new Thread(runnable, "AsyncCommand-" + createdThreads.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	static {
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Starts a task, adding every future it starts to the given {@link Run}
+	 * so they can be cancelled together.
+	 */
+	@FunctionalInterface
+	private interface Task<T> {
+		CompletableFuture<T> start(Run run);
+	}
+
+	/**
+	 * The futures started by one run of a command, including the futures of
+	 * the commands it was built from.
+	 */
+	private static class Run {
+		private final List<Future<?>> futures = new ArrayList<>();
+		private boolean cancelled = false;
+
+		/**
+		 * Adds a future to this run. If the run was already cancelled, the
+		 * future is cancelled right away.
+		 */
+		private synchronized <F extends Future<?>> F add(F future) {
+			if (cancelled) {
+				future.cancel(true);
+			} else {
+				futures.add(future);
+			}
+			return future;
+		}
+
+		private synchronized void cancel() {
+			cancelled = true;
+			for (Future<?> future : futures) {
+				future.cancel(true);
+			}
+			futures.clear();
+		}
+	}
+
+	private final Task<T> task;
+	private volatile CompletableFuture<T> future;
+	private Run run;
+	private volatile T result;
+
+	/**
+	 * This constructs a new {@link AsyncCommand} that starts the given task
+	 * whenever it starts. This command also works in disabled.
+	 *
+	 * @param task
+	 *            a {@link Supplier} starting the task and returning its
+	 *            {@link CompletableFuture}
+	 */
+	public AsyncCommand(Supplier<CompletableFuture<T>> task) {
+		this(task, true);
+	}
+
+	/**
+	 * This constructs a new {@link AsyncCommand} that starts the given task
+	 * whenever it starts.
+	 *
+	 * @param task
+	 *            a {@link Supplier} starting the task and returning its
+	 *            {@link CompletableFuture}
+	 * @param runInDisabled
+	 *            whether this command should also run while the robot is disabled
+	 */
+	public AsyncCommand(Supplier<CompletableFuture<T>> task, boolean runInDisabled) {
+		this(run -> task.get(), runInDisabled);
+	}
+
+	private AsyncCommand(Task<T> task, boolean runInDisabled) {
+		this.task = task;
+		setRunWhenDisabled(runInDisabled);
+	}
+
+	/**
+	 * Constructs an {@link AsyncCommand} that calculates its result by calling
+	 * the given {@link Supplier} on the threads of {@link AsyncCommand}s.
+	 *
+	 * @param work
+	 *            the {@link Supplier} calculating the result
+	 * @return an {@link AsyncCommand} running the given work.
+	 */
+	public static <T> AsyncCommand<T> supplying(Supplier<T> work) {
+		return new AsyncCommand<>(run -> supply(work, run), true);
+	}
+
+	/**
+	 * Constructs an {@link AsyncCommand} that runs all of the given commands'
+	 * tasks together and finishes when all of them complete. The given
+	 * commands themselves are not changed, so their own results are not set.
+	 *
+	 * @param commands
+	 *            the commands whose tasks are run together
+	 * @return an {@link AsyncCommand} joining the given commands, whose result
+	 *         holds the results of their tasks, in the order they were given.
+	 */
+	public static AsyncCommand<Object[]> all(AsyncCommand<?>... commands) {
+		return new AsyncCommand<>(run -> {
+			CompletableFuture<?>[] futures = new CompletableFuture<?>[commands.length];
+			for (int i = 0; i < commands.length; i++) {
+				futures[i] = commands[i].startTask(run);
+			}
+			return CompletableFuture.allOf(futures).thenApply(ignored -> {
+				Object[] results = new Object[futures.length];
+				for (int i = 0; i < futures.length; i++) {
+					results[i] = futures[i].join();
+				}
+				return results;
+			});
+		}, true);
+	}
+
+	/**
+	 * Constructs an {@link AsyncCommand} that runs this command's task, and
+	 * then starts another task using its result. This command itself is not
+	 * changed, so it can still be started by itself.
+	 *
+	 * @param next
+	 *            a {@link Function} starting the next task with this task's
+	 *            result
+	 * @return an {@link AsyncCommand} running both tasks one after the other.
+	 */
+	public <R> AsyncCommand<R> then(Function<? super T, CompletableFuture<R>> next) {
+		return new AsyncCommand<>(run -> startTask(run).thenCompose(value -> run.add(next.apply(value))), true);
+	}
+
+	/**
+	 * Constructs an {@link AsyncCommand} that runs this command's task, and
+	 * then calculates a new result from its result on the threads of
+	 * {@link AsyncCommand}s. This command itself is not changed, so it can
+	 * still be started by itself.
+	 *
+	 * @param next
+	 *            a {@link Function} calculating the new result
+	 * @return an {@link AsyncCommand} running the task and the calculation.
+	 */
+	public <R> AsyncCommand<R> thenApply(Function<? super T, R> next) {
+		return new AsyncCommand<>(run -> startTask(run).thenCompose(value -> supply(() -> next.apply(value), run)),
+				true);
+	}
+
+	/**
+	 * Returns the result of the last run of this command's task.
+	 *
+	 * @return the result, or null if the task didn't complete successfully.
+	 */
+	public T getResult() {
+		return result;
+	}
+
+	/**
+	 * Starts this command's task as part of the given run, without changing
+	 * this command.
+	 */
+	private CompletableFuture<T> startTask(Run run) {
+		CompletableFuture<T> taskFuture;
+		try {
+			taskFuture = task.start(run);
+		} catch (RejectedExecutionException e) {
+			taskFuture = new CompletableFuture<>();
+			taskFuture.completeExceptionally(e);
+		}
+		return run.add(taskFuture);
+	}
+
+	/**
+	 * Calculates a result on this class's threads, in a way that cancelling
+	 * the run interrupts the calculation.
+	 */
+	private static <T> CompletableFuture<T> supply(Supplier<T> work, Run run) {
+		CompletableFuture<T> result = run.add(new CompletableFuture<>());
+		FutureTask<Void> calculation = new FutureTask<>(() -> {
+			try {
+				result.complete(work.get());
+			} catch (RuntimeException e) {
+				result.completeExceptionally(e);
+			}
+		}, null);
+		executor.execute(run.add(calculation));
+		return result;
+	}
+
+	@Override
+	protected void doInitialize() {
+		run = new Run();
+		result = null;
+		CompletableFuture<T> runFuture = startTask(run);
+		future = runFuture;
+		runFuture.whenComplete((value, exception) -> {
+			if (future != runFuture) {
+				return;
+			}
+			if (exception == null) {
+				result = value;
+			} else if (!(exception instanceof CancellationException)
+					&& !(exception.getCause() instanceof CancellationException)) {
+				Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+				DriverStation.reportError("AsyncCommand failed: " + cause, false);
+			}
+		});
+	}
+
+	@Override
+	protected void doExecute() {
+	}
+
+	@Override
+	protected boolean doIsFinished() {
+		return future.isDone() || isTimedOut();
+	}
+
+	@Override
+	protected void doEnd() {
+		// The future can be done before its callback set the result, so the
+		// result is set here too, before a following command can read it.
+		CompletableFuture<T> runFuture = future;
+		if (runFuture.isDone() && !runFuture.isCompletedExceptionally()) {
+			result = runFuture.getNow(null);
+		}
+		run.cancel();
+	}
+
+	@Override
+	protected void interrupted() {
+		end();
+	}
+}
@@ -1,25 +1,116 @@
 package com.spikes2212.utils;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.opencv.core.CvType;
 import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import com.spikes2212.dashboard.DashBoardController;
 
 import edu.wpi.cscore.CvSink;
 import edu.wpi.cscore.CvSource;
 import edu.wpi.cscore.UsbCamera;
 import edu.wpi.first.wpilibj.CameraServer;
+import edu.wpi.first.wpilibj.DriverStation;
 
 /**
  * This class handles the cameras used by the drivers, streaming the image from
  * the chosen camera to the camera server under the name "CamerasHandler" and
  * allowing you to switch between any amount of cameras.
+ * 
+ * <br>
+ * <br>
+ * The handler can also stream several cameras at once using
+ * {@link #setComposite(Layout, int...)}, which downscales each camera into its
+ * own region of a single stream, keeping the bandwidth of one camera.
+ * 
+ * <br>
+ * <br>
+ * Every frame is timestamped with the time of the default {@link Clock} at
+ * which it was grabbed, using the time cscore gives the frame, so the
+ * latencies include the time the frame waited to be grabbed. The timestamp
+ * is passed to the {@link FrameProcessor}, if one is set, and the latency
+ * from grabbing to publishing the frame is recorded in
+ * {@link #getPublishLatency()}.
  *
  * @author Omri "Riki" Cohen & Ittai "Dafner" Dafner
  */
 public class CamerasHandler {
+	/**
+	 * The amount of windows that fit in each row of a
+	 * {@link Layout#PICTURE_IN_PICTURE} composite, and the amount of rows that
+	 * fit in the stream.
+	 */
+	public static final int PICTURE_IN_PICTURE_COLUMNS = 4;
+
 	private CvSink sink;
 	private Map<Integer, UsbCamera> cameras = new HashMap<>();
+	private final int width, height;
+
+	/**
+	 * The composite that should be streamed, or null when streaming a single
+	 * camera.
+	 */
+	private Composite composite;
+
+	/**
+	 * The composite the streaming thread is using. Only the streaming thread
+	 * releases it, once it has moved on to another one.
+	 */
+	private Composite streamedComposite;
+
+	private volatile FrameProcessor frameProcessor;
+	private volatile double lastCaptureTime;
+	private final Histogram publishLatency = new Histogram(0.001, 500);
+	private final Histogram resultLatency = new Histogram(0.001, 500);
+	private static volatile boolean clockMismatchReported = false;
+
+	/**
+	 * A processing stage that runs on every frame before it is published, for
+	 * example a vision pipeline or an overlay drawn on the frame.
+	 * 
+	 * @see CamerasHandler#setFrameProcessor(FrameProcessor)
+	 */
+	@FunctionalInterface
+	public interface FrameProcessor {
+
+		/**
+		 * Processes a frame. Changes made to the frame are published.
+		 * 
+		 * @param frame
+		 *            the frame about to be published
+		 * @param captureTime
+		 *            the {@link Clock} time the frame was grabbed at, in
+		 *            seconds. Pass it to
+		 *            {@link CamerasHandler#reportResult(double)} when a result
+		 *            calculated from this frame is used.
+		 */
+		void process(Mat frame, double captureTime);
+	}
+
+	/**
+	 * The ways a composite stream can arrange its cameras.
+	 * 
+	 * @see CamerasHandler#setComposite(Layout, int...)
+	 */
+	public enum Layout {
+		/**
+		 * The cameras are placed side by side, each taking an equal share of the
+		 * stream's width.
+		 */
+		TILED,
+		/**
+		 * The first camera fills the whole stream, and the rest are shown in
+		 * small windows along its bottom edge, starting from the right. Each
+		 * row fits {@link CamerasHandler#PICTURE_IN_PICTURE_COLUMNS} windows,
+		 * and further windows continue on the row above it.
+		 */
+		PICTURE_IN_PICTURE
+	}
 
 	/**
 	 * Constructs a new instance of {@link CamerasHandler} that automatically
@@ -40,6 +131,8 @@ public class CamerasHandler {
 		if (ports.length < 1) {
 			throw new IllegalArgumentException("Cannot construct CamerasHandler without cameras");
 		}
+		this.width = width;
+		this.height = height;
 		for (int i : ports) {
 			addCamera(i, width, height);
 		}
@@ -48,20 +141,168 @@ public class CamerasHandler {
 			CvSource outputStream = CameraServer.getInstance().putVideo("CamerasHandler", width, height);
 			Mat frame = new Mat();
 			while (!Thread.interrupted()) {
-				if (sink.grabFrame(frame) == 0) {
+				Composite currentComposite = takeComposite();
+				if (currentComposite != null) {
+					double captureTime = currentComposite.grabFrames(outputStream);
+					if (!Double.isNaN(captureTime)) {
+						publishFrame(outputStream, currentComposite.output, captureTime);
+					}
+					continue;
+				}
+				long frameTime = sink.grabFrame(frame);
+				if (frameTime == 0) {
 					// Send the output the error.
 					outputStream.notifyError(sink.getError());
 					// skip the rest of the current iteration
 					continue;
 				}
-				outputStream.putFrame(frame);
+				publishFrame(outputStream, frame, toClockTime(frameTime));
 			}
 		}).start();
 	}
 
+	/**
+	 * Gets the composite the streaming thread should stream. If it has
+	 * changed, the composite the thread streamed before is released, since no
+	 * other thread uses it anymore.
+	 */
+	private Composite takeComposite() {
+		Composite previousComposite;
+		Composite currentComposite;
+		synchronized (this) {
+			previousComposite = streamedComposite;
+			currentComposite = composite;
+			streamedComposite = currentComposite;
+		}
+		if (previousComposite != null && previousComposite != currentComposite) {
+			previousComposite.release();
+		}
+		return currentComposite;
+	}
+
+	/**
+	 * Replaces the composite that should be streamed. If the streaming thread
+	 * never took the old one, it is released here instead.
+	 */
+	private synchronized void replaceComposite(Composite newComposite) {
+		if (composite != null && composite != streamedComposite) {
+			composite.release();
+		}
+		composite = newComposite;
+	}
+
+	/**
+	 * Converts the time cscore gave a frame, in microseconds of the monotonic
+	 * clock that {@link System#nanoTime()} also reads, to the time of the
+	 * default {@link Clock}. If the frame seems to be from the future or more
+	 * than a second old, the clocks don't match, and the current time is used
+	 * instead. This is reported to the driver station the first time it
+	 * happens.
+	 */
+	private static double toClockTime(long frameTime) {
+		double age = (System.nanoTime() / 1000 - frameTime) / 1e6;
+		double now = Clock.now();
+		if (age >= 0 && age <= 1) {
+			return now - age;
+		}
+		if (!clockMismatchReported) {
+			clockMismatchReported = true;
+			DriverStation.reportWarning("CamerasHandler frame times don't match System.nanoTime(), "
+					+ "so frames are timestamped when they are published", false);
+		}
+		return now;
+	}
+
+	/**
+	 * Processes a frame with the current {@link FrameProcessor}, publishes it
+	 * and records how long it took since the frame was grabbed.
+	 */
+	private void publishFrame(CvSource outputStream, Mat frame, double captureTime) {
+		lastCaptureTime = captureTime;
+		FrameProcessor currentProcessor = frameProcessor;
+		if (currentProcessor != null) {
+			currentProcessor.process(frame, captureTime);
+		}
+		outputStream.putFrame(frame);
+		publishLatency.record(Clock.now() - captureTime);
+	}
+
+	/**
+	 * Sets the processing stage every frame goes through before it is
+	 * published.
+	 *
+	 * @param frameProcessor
+	 *            the {@link FrameProcessor} to run on every frame, or null to
+	 *            publish frames as they are
+	 */
+	public void setFrameProcessor(FrameProcessor frameProcessor) {
+		this.frameProcessor = frameProcessor;
+	}
+
+	/**
+	 * Returns the {@link Clock} time at which the last published frame was
+	 * grabbed.
+	 *
+	 * @return the capture time of the last published frame, in seconds.
+	 */
+	public double getLastCaptureTime() {
+		return lastCaptureTime;
+	}
+
+	/**
+	 * Records that a result calculated from a frame, such as a target angle,
+	 * is being used now. This is what {@link #getResultLatency()} measures.
+	 *
+	 * @param captureTime
+	 *            the capture time of the frame the result was calculated from,
+	 *            as given to the {@link FrameProcessor}
+	 */
+	public void reportResult(double captureTime) {
+		resultLatency.record(Clock.now() - captureTime);
+	}
+
+	/**
+	 * Returns the latencies from grabbing frames to publishing them, in
+	 * seconds.
+	 *
+	 * @return the {@link Histogram} of the capture to publish latencies.
+	 */
+	public Histogram getPublishLatency() {
+		return publishLatency;
+	}
+
+	/**
+	 * Returns the latencies from grabbing frames to using results calculated
+	 * from them, as reported by {@link #reportResult(double)}, in seconds.
+	 *
+	 * @return the {@link Histogram} of the capture to result latencies.
+	 */
+	public Histogram getResultLatency() {
+		return resultLatency;
+	}
+
+	/**
+	 * Adds the 50th and 99th percentiles of this handler's latencies, in
+	 * seconds, to the given {@link DashBoardController}.
+	 *
+	 * @param dashBoardController
+	 *            the {@link DashBoardController} to display the latencies on
+	 */
+	public void addLatencies(DashBoardController dashBoardController) {
+		dashBoardController.addDouble("CamerasHandler publish latency p50", () -> publishLatency.getPercentile(0.5));
+		dashBoardController.addDouble("CamerasHandler publish latency p99", () -> publishLatency.getPercentile(0.99));
+		dashBoardController.addDouble("CamerasHandler result latency p50", () -> resultLatency.getPercentile(0.5));
+		dashBoardController.addDouble("CamerasHandler result latency p99", () -> resultLatency.getPercentile(0.99));
+	}
+
 	/**
 	 * Switches the stream to the camera with the given port. If there's no
 	 * camera with that port in the {@link CamerasHandler}, does nothing.
+	 * 
+	 * <br>
+	 * <br>
+	 * If a composite stream is running, it is stopped and only the chosen
+	 * camera is streamed.
 	 *
 	 * @param port
 	 *            the port of the camera to switch to
@@ -69,6 +310,46 @@ public class CamerasHandler {
 	public void switchCamera(int port) {
 		if (cameras.containsKey(port)) {
 			this.sink = CameraServer.getInstance().getVideo(cameras.get(port));
+			replaceComposite(null);
+		}
+	}
+
+	/**
+	 * Streams several cameras at once. Each camera is downscaled into its own
+	 * region of the stream, according to the given layout, so the stream keeps
+	 * the resolution this handler was constructed with. The images of the
+	 * previous composite are released once the stream stops using them.
+	 * 
+	 * <br>
+	 * <br>
+	 * Ports with no camera in this {@link CamerasHandler} are ignored. If none
+	 * of the ports has a camera, does nothing. Use {@link #switchCamera(int)}
+	 * to go back to streaming a single camera.
+	 *
+	 * @param layout
+	 *            the way the cameras are arranged in the stream
+	 * @param ports
+	 *            the ports of the cameras to stream, in the order they are
+	 *            placed in the layout
+	 * 
+	 * @throws IllegalArgumentException
+	 *             when a {@link Layout#PICTURE_IN_PICTURE} composite is given
+	 *             more windows than fit in the stream
+	 */
+	public void setComposite(Layout layout, int... ports) {
+		int count = 0;
+		CvSink[] sinks = new CvSink[ports.length];
+		for (int port : ports) {
+			if (cameras.containsKey(port)) {
+				sinks[count++] = CameraServer.getInstance().getVideo(cameras.get(port));
+			}
+		}
+		if (layout == Layout.PICTURE_IN_PICTURE
+				&& count - 1 > PICTURE_IN_PICTURE_COLUMNS * PICTURE_IN_PICTURE_COLUMNS) {
+			throw new IllegalArgumentException("Cannot fit " + (count - 1) + " picture in picture windows");
+		}
+		if (count > 0) {
+			replaceComposite(new Composite(layout, Arrays.copyOf(sinks, count), width, height));
 		}
 	}
 
@@ -146,4 +427,80 @@ public class CamerasHandler {
 		}
 	}
 
+	/**
+	 * A composite of several cameras, holding all the buffers it needs so that
+	 * building each frame doesn't allocate new images.
+	 */
+	private static class Composite {
+		private final CvSink[] sinks;
+		private final Mat[] frames;
+		private final Mat[] regions;
+		private final Size[] sizes;
+		private final Mat output;
+
+		private Composite(Layout layout, CvSink[] sinks, int width, int height) {
+			this.sinks = sinks;
+			this.frames = new Mat[sinks.length];
+			this.regions = new Mat[sinks.length];
+			this.sizes = new Size[sinks.length];
+			this.output = new Mat(height, width, CvType.CV_8UC3);
+			for (int i = 0; i < sinks.length; i++) {
+				frames[i] = new Mat();
+				if (layout == Layout.TILED) {
+					int tileWidth = width / sinks.length;
+					regions[i] = output.submat(0, height, i * tileWidth, (i + 1) * tileWidth);
+					sizes[i] = new Size(tileWidth, height);
+				} else if (i == 0) {
+					regions[i] = output;
+					sizes[i] = new Size(width, height);
+				} else {
+					int windowWidth = width / PICTURE_IN_PICTURE_COLUMNS;
+					int windowHeight = height / PICTURE_IN_PICTURE_COLUMNS;
+					int right = width - ((i - 1) % PICTURE_IN_PICTURE_COLUMNS) * windowWidth;
+					int bottom = height - ((i - 1) / PICTURE_IN_PICTURE_COLUMNS) * windowHeight;
+					regions[i] = output.submat(bottom - windowHeight, bottom, right - windowWidth, right);
+					sizes[i] = new Size(windowWidth, windowHeight);
+				}
+			}
+		}
+
+		/**
+		 * Grabs a frame from every camera and draws each one into its region.
+		 * A camera that fails to give a frame keeps its last image, and its
+		 * error is sent to the stream.
+		 * 
+		 * @return the time the first camera to give a frame grabbed it at, or
+		 *         NaN if no camera gave a frame.
+		 */
+		private double grabFrames(CvSource outputStream) {
+			double captureTime = Double.NaN;
+			for (int i = 0; i < sinks.length; i++) {
+				long frameTime = sinks[i].grabFrame(frames[i]);
+				if (frameTime == 0) {
+					outputStream.notifyError(sinks[i].getError());
+					continue;
+				}
+				if (Double.isNaN(captureTime)) {
+					captureTime = toClockTime(frameTime);
+				}
+				Imgproc.resize(frames[i], regions[i], sizes[i], 0, 0, Imgproc.INTER_AREA);
+			}
+			return captureTime;
+		}
+
+		/**
+		 * Releases all of the images of this composite. It should not be used
+		 * afterwards.
+		 */
+		private void release() {
+			for (int i = 0; i < sinks.length; i++) {
+				frames[i].release();
+				if (regions[i] != output) {
+					regions[i].release();
+				}
+			}
+			output.release();
+		}
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.spikes2212.utils;
+
+/**
+ * This class is the source of time for all of the commands and utilities in
+ * this library which depend on time, such as waiting after reaching a setpoint
+ * or following a trajectory.
+ *
+ * <br>
+ * <br>
+ * By default, the time is read from the FPGA using a {@link RealTimeClock}.
+ * Tests and simulations can replace it with a {@link VirtualClock} using
+ * {@link #setDefault(Clock)}, and then step it manually, so the commands run
+ * as fast as they can be called instead of in real time.
+ *
+ * <br>
+ * <br>
+ * Times returned by a clock must never decrease.
+ *
+ * @see RealTimeClock
+ * @see VirtualClock
+ */
+public abstract class Clock {
+
+	private static volatile Clock defaultClock = new RealTimeClock();
+
+	/**
+	 * @return the current time, in seconds.
+	 */
+	public abstract double getTime();
+
+	/**
+	 * @return the {@link Clock} used by this library.
+	 */
+	public static Clock getDefault() {
+		return defaultClock;
+	}
+
+	/**
+	 * Sets the {@link Clock} used by this library. This should be done before
+	 * any command starts, since commands compare times read from the same
+	 * clock.
+	 *
+	 * @param clock
+	 *            the new {@link Clock}
+	 */
+	public static void setDefault(Clock clock) {
+		defaultClock = clock;
+	}
+
+	/**
+	 * @return the current time of the {@link Clock} used by this library, in
+	 *         seconds.
+	 */
+	public static double now() {
+		return defaultClock.getTime();
+	}
+}
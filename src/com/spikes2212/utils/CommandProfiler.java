@@ -0,0 +1,387 @@
+package com.spikes2212.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+/**
+ * This class measures how long each phase of {@link ProfiledCommand}s takes,
+ * such as the library's commands, so when the robot loop overruns, the
+ * command that caused it can be found.
+ *
+ * <br>
+ * <br>
+ * Profiling is off by default, and is turned on using
+ * {@link #setEnabled(boolean)}. While it is on, every call to
+ * {@code initialize()}, {@code execute()}, {@code isFinished()} and
+ * {@code end()} of a {@link ProfiledCommand} is timed and recorded into the
+ * {@link Histogram} of its phase in the command's {@link Profile}. Calls that
+ * take longer than the budget are counted as overruns, and are reported to the
+ * driver station whenever a command's worst overrun grows. Recording doesn't
+ * allocate memory, so profiling can be left on during matches.
+ *
+ * <br>
+ * <br>
+ * Commands with the same name, such as the commands of one class that are
+ * named by their class, share a {@link Profile}, so there is a profile for
+ * each name rather than for each command, and constructing commands again
+ * doesn't add profiles.
+ *
+ * <br>
+ * <br>
+ * Calling {@link #startLoop()} and {@link #endLoop()} around the scheduler's
+ * run also times the whole loop, and reports the slowest command phase of
+ * every loop that took longer than the loop budget. The percentiles of all
+ * of the commands can be written to the SmartDashboard using
+ * {@link #publish()}, or to a log file using {@link #getSummary()}.
+ *
+ * <br>
+ * <br>
+ * Durations are measured in real time using {@link System#nanoTime()}, even
+ * when the default {@link Clock} is a {@link VirtualClock}, and are recorded
+ * in seconds. All of the methods should be called from the robot's main
+ * thread.
+ *
+ * @see ProfiledCommand
+ * @see Histogram
+ */
+public class CommandProfiler {
+
+	/**
+	 * The phases of a command that are timed.
+	 */
+	public enum Phase {
+		INITIALIZE("initialize"), EXECUTE("execute"), IS_FINISHED("isFinished"), END("end");
+
+		private final String methodName;
+
+		private Phase(String methodName) {
+			this.methodName = methodName;
+		}
+	}
+
+	/**
+	 * The default longest time a single phase of a command may take, in
+	 * seconds.
+	 */
+	public static final double DEFAULT_BUDGET = 0.002;
+
+	/**
+	 * The default longest time a loop may take, in seconds.
+	 */
+	public static final double DEFAULT_LOOP_BUDGET = 0.02;
+
+	private static final double BUCKET_WIDTH = 0.00002;
+	private static final int BUCKET_COUNT = 1000;
+	private static final String DASHBOARD_PREFIX = "CommandProfiler/";
+
+	private static volatile boolean enabled = false;
+	private static double budget = DEFAULT_BUDGET;
+	private static double loopBudget = DEFAULT_LOOP_BUDGET;
+
+	private static final Map<String, Profile> profiles = new HashMap<>();
+	private static final List<Profile> profileList = new ArrayList<>();
+	private static final Histogram loopDurations = new Histogram(BUCKET_WIDTH * 5, BUCKET_COUNT);
+	private static long loopOverruns = 0;
+	private static long loopStartTime = 0;
+	private static Profile slowestProfile;
+	private static Phase slowestPhase;
+	private static double slowestDuration = 0;
+
+	/**
+	 * The durations recorded for all of the commands sharing a profile name.
+	 */
+	public static class Profile {
+
+		private final String name;
+		private final Histogram[] durations = new Histogram[Phase.values().length];
+		private final long[] overruns = new long[Phase.values().length];
+		private final String[] keys = new String[Phase.values().length * 4];
+		private double worstOverrun = 0;
+
+		private Profile(String name) {
+			this.name = name;
+			for (Phase phase : Phase.values()) {
+				int index = phase.ordinal();
+				durations[index] = new Histogram(BUCKET_WIDTH, BUCKET_COUNT);
+				String prefix = DASHBOARD_PREFIX + name + "/" + phase.methodName;
+				keys[index * 4] = prefix + " p50 (ms)";
+				keys[index * 4 + 1] = prefix + " p99 (ms)";
+				keys[index * 4 + 2] = prefix + " max (ms)";
+				keys[index * 4 + 3] = prefix + " overruns";
+			}
+		}
+
+		/**
+		 * @return the name of this profile.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @param phase
+		 *            the phase of the commands
+		 * @return the {@link Histogram} of the durations of the given phase, in
+		 *         seconds.
+		 */
+		public Histogram getDurations(Phase phase) {
+			return durations[phase.ordinal()];
+		}
+
+		/**
+		 * @param phase
+		 *            the phase of the commands
+		 * @return the amount of calls of the given phase that took longer than
+		 *         the budget.
+		 */
+		public long getOverruns(Phase phase) {
+			return overruns[phase.ordinal()];
+		}
+	}
+
+	/**
+	 * Sets whether the commands' phases are timed.
+	 *
+	 * @param enabled
+	 *            true to time the commands
+	 */
+	public static synchronized void setEnabled(boolean enabled) {
+		loopStartTime = 0;
+		CommandProfiler.enabled = enabled;
+	}
+
+	/**
+	 * @return true if the commands' phases are timed.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets the longest time a single phase of a command may take before it is
+	 * counted as an overrun.
+	 *
+	 * @param budget
+	 *            the budget, in seconds
+	 */
+	public static synchronized void setBudget(double budget) {
+		CommandProfiler.budget = budget;
+	}
+
+	/**
+	 * Sets the longest time a loop may take before the slowest command phase
+	 * in it is reported.
+	 *
+	 * @param loopBudget
+	 *            the budget, in seconds
+	 */
+	public static synchronized void setLoopBudget(double loopBudget) {
+		CommandProfiler.loopBudget = loopBudget;
+	}
+
+	/**
+	 * Starts timing a phase of a command.
+	 *
+	 * @return the time the phase started, or 0 if profiling is off.
+	 */
+	static long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Stops timing a phase of a command and records its duration into the
+	 * command's {@link Profile}.
+	 *
+	 * @param command
+	 *            the command whose phase is ending
+	 * @param phase
+	 *            the phase that is ending
+	 * @param startTime
+	 *            the time returned by {@link #start()} when the phase started
+	 */
+	static void stop(ProfiledCommand command, Phase phase, long startTime) {
+		if (!enabled || startTime == 0) {
+			return;
+		}
+		long time = System.nanoTime();
+		synchronized (CommandProfiler.class) {
+			Profile profile = command.profile;
+			if (profile == null) {
+				profile = getOrAddProfile(
+						command.getProfileName() == null ? command.getName() : command.getProfileName());
+				command.profile = profile;
+			}
+			double duration = (time - startTime) / 1e9;
+			profile.durations[phase.ordinal()].record(duration);
+			if (duration > slowestDuration) {
+				slowestProfile = profile;
+				slowestPhase = phase;
+				slowestDuration = duration;
+			}
+			if (duration > budget) {
+				profile.overruns[phase.ordinal()]++;
+				if (duration > profile.worstOverrun) {
+					profile.worstOverrun = duration;
+					DriverStation.reportWarning(profile.name + "." + phase.methodName + "() took "
+							+ toMilliseconds(duration) + " ms, over its budget of " + toMilliseconds(budget) + " ms",
+							false);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts timing a loop. This should be called right before the scheduler
+	 * runs.
+	 */
+	public static synchronized void startLoop() {
+		if (!enabled) {
+			return;
+		}
+		loopStartTime = System.nanoTime();
+		slowestProfile = null;
+		slowestDuration = 0;
+	}
+
+	/**
+	 * Stops timing a loop and records its duration. If the loop took longer
+	 * than the loop budget, the slowest command phase in it is reported.
+	 */
+	public static synchronized void endLoop() {
+		if (!enabled || loopStartTime == 0) {
+			return;
+		}
+		double duration = (System.nanoTime() - loopStartTime) / 1e9;
+		loopStartTime = 0;
+		loopDurations.record(duration);
+		if (duration > loopBudget) {
+			loopOverruns++;
+			String slowest = slowestProfile == null ? "no command was running"
+					: "the slowest command was " + slowestProfile.name + "." + slowestPhase.methodName + "() at "
+							+ toMilliseconds(slowestDuration) + " ms";
+			DriverStation.reportWarning("Loop took " + toMilliseconds(duration) + " ms, " + slowest, false);
+		}
+	}
+
+	/**
+	 * Writes the 50th and 99th percentiles, the largest duration and the
+	 * amount of overruns of every phase of every command to the SmartDashboard,
+	 * with the durations in milliseconds. This should be called periodically,
+	 * usually a few times a second.
+	 */
+	public static synchronized void publish() {
+		for (int i = 0; i < profileList.size(); i++) {
+			Profile profile = profileList.get(i);
+			for (int phase = 0; phase < profile.durations.length; phase++) {
+				Histogram durations = profile.durations[phase];
+				if (durations.getCount() > 0) {
+					SmartDashboard.putNumber(profile.keys[phase * 4], durations.getPercentile(0.5) * 1000);
+					SmartDashboard.putNumber(profile.keys[phase * 4 + 1], durations.getPercentile(0.99) * 1000);
+					SmartDashboard.putNumber(profile.keys[phase * 4 + 2], durations.getMax() * 1000);
+					SmartDashboard.putNumber(profile.keys[phase * 4 + 3], profile.overruns[phase]);
+				}
+			}
+		}
+		if (loopDurations.getCount() > 0) {
+			SmartDashboard.putNumber(DASHBOARD_PREFIX + "loop p50 (ms)", loopDurations.getPercentile(0.5) * 1000);
+			SmartDashboard.putNumber(DASHBOARD_PREFIX + "loop p99 (ms)", loopDurations.getPercentile(0.99) * 1000);
+			SmartDashboard.putNumber(DASHBOARD_PREFIX + "loop max (ms)", loopDurations.getMax() * 1000);
+			SmartDashboard.putNumber(DASHBOARD_PREFIX + "loop overruns", loopOverruns);
+		}
+	}
+
+	/**
+	 * Describes the recorded durations of every command, one phase in each
+	 * line, for example to write to a log file at the end of a match.
+	 *
+	 * @return the summary of the recorded durations, in milliseconds.
+	 */
+	public static synchronized String getSummary() {
+		StringBuilder summary = new StringBuilder();
+		if (loopDurations.getCount() > 0) {
+			appendLine(summary, "loop", loopDurations, loopOverruns);
+		}
+		for (Profile profile : profileList) {
+			for (Phase phase : Phase.values()) {
+				Histogram durations = profile.durations[phase.ordinal()];
+				if (durations.getCount() > 0) {
+					appendLine(summary, profile.name + "." + phase.methodName + "()", durations,
+							profile.overruns[phase.ordinal()]);
+				}
+			}
+		}
+		return summary.toString();
+	}
+
+	/**
+	 * Gets a {@link Profile} by its name. A command's profile is named by the
+	 * command's name, unless it was given a profile name using
+	 * {@link ProfiledCommand#setProfileName(String)}.
+	 *
+	 * @param name
+	 *            the name of the profile
+	 * @return the {@link Profile} with the given name, or null if there is
+	 *         none.
+	 */
+	public static synchronized Profile getProfile(String name) {
+		return profiles.get(name);
+	}
+
+	/**
+	 * @return all of the {@link Profile}s, in the order their commands were
+	 *         first timed.
+	 */
+	public static synchronized List<Profile> getProfiles() {
+		return Collections.unmodifiableList(new ArrayList<>(profileList));
+	}
+
+	/**
+	 * @return the {@link Histogram} of the loops' durations, in seconds.
+	 */
+	public static Histogram getLoopDurations() {
+		return loopDurations;
+	}
+
+	/**
+	 * Clears all of the recorded durations and overruns.
+	 */
+	public static synchronized void reset() {
+		for (Profile profile : profileList) {
+			for (Histogram durations : profile.durations) {
+				durations.reset();
+			}
+			for (int i = 0; i < profile.overruns.length; i++) {
+				profile.overruns[i] = 0;
+			}
+			profile.worstOverrun = 0;
+		}
+		loopDurations.reset();
+		loopOverruns = 0;
+	}
+
+	private static Profile getOrAddProfile(String name) {
+		Profile profile = profiles.get(name);
+		if (profile == null) {
+			profile = new Profile(name);
+			profiles.put(name, profile);
+			profileList.add(profile);
+		}
+		return profile;
+	}
+
+	private static void appendLine(StringBuilder summary, String name, Histogram durations, long overruns) {
+		summary.append(String.format("%s: p50 %.3f ms, p99 %.3f ms, max %.3f ms, %d calls, %d overruns%n", name,
+				durations.getPercentile(0.5) * 1000, durations.getPercentile(0.99) * 1000, durations.getMax() * 1000,
+				durations.getCount(), overruns));
+	}
+
+	private static String toMilliseconds(double seconds) {
+		return String.format("%.2f", seconds * 1000);
+	}
+}
@@ -0,0 +1,119 @@
+package com.spikes2212.utils;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Notifier;
+
+/**
+ * This class runs tasks that need a faster rate than the robot loop, such as
+ * odometry or sensor histories, on one shared thread.
+ *
+ * <br>
+ * <br>
+ * All of the tasks run one after the other every {@link #PERIOD} seconds,
+ * using a single <a href=
+ * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/Notifier.html">Notifier</a>
+ * that is started when the first task is added. Tasks should be short, since
+ * a slow task delays all of the others.
+ *
+ * <br>
+ * <br>
+ * In manual mode, set using {@link #setManual(boolean)}, the thread is not
+ * used, and the tasks only run when {@link #runOnce()} is called. This is used
+ * to run the tasks by a {@link VirtualClock}, for example in a simulation.
+ *
+ * @see Notifier
+ */
+public class ControlLoop {
+
+	/**
+	 * The time between runs of the tasks, in seconds.
+	 */
+	public static final double PERIOD = 0.005;
+
+	private static volatile Runnable[] tasks = new Runnable[0];
+	private static Notifier notifier;
+	private static boolean manual = false;
+
+	/**
+	 * Adds a task to the control loop. If the task was already added, does
+	 * nothing.
+	 *
+	 * @param task
+	 *            the {@link Runnable} to run every {@link #PERIOD} seconds
+	 */
+	public static synchronized void add(Runnable task) {
+		for (Runnable existing : tasks) {
+			if (existing == task) {
+				return;
+			}
+		}
+		Runnable[] newTasks = new Runnable[tasks.length + 1];
+		System.arraycopy(tasks, 0, newTasks, 0, tasks.length);
+		newTasks[tasks.length] = task;
+		tasks = newTasks;
+		if (notifier == null && !manual) {
+			notifier = new Notifier(ControlLoop::runOnce);
+			notifier.startPeriodic(PERIOD);
+		}
+	}
+
+	/**
+	 * Sets whether the tasks only run when {@link #runOnce()} is called,
+	 * instead of on the control loop's thread.
+	 *
+	 * @param manual
+	 *            true to run the tasks manually
+	 */
+	public static synchronized void setManual(boolean manual) {
+		ControlLoop.manual = manual;
+		if (manual && notifier != null) {
+			notifier.stop();
+			notifier = null;
+		} else if (!manual && notifier == null && tasks.length > 0) {
+			notifier = new Notifier(ControlLoop::runOnce);
+			notifier.startPeriodic(PERIOD);
+		}
+	}
+
+	/**
+	 * Removes a task from the control loop. If the task wasn't added, does
+	 * nothing.
+	 *
+	 * @param task
+	 *            the {@link Runnable} to stop running
+	 */
+	public static synchronized void remove(Runnable task) {
+		int count = 0;
+		Runnable[] newTasks = new Runnable[tasks.length];
+		for (Runnable existing : tasks) {
+			if (existing != task) {
+				newTasks[count++] = existing;
+			}
+		}
+		if (count < tasks.length) {
+			Runnable[] trimmed = new Runnable[count];
+			System.arraycopy(newTasks, 0, trimmed, 0, count);
+			tasks = trimmed;
+		}
+	}
+
+	/**
+	 * Runs all of the tasks once. A task that throws an exception is reported
+	 * to the driver station, and the rest of the tasks still run.
+	 *
+	 * <br>
+	 * <br>
+	 * This is called every {@link #PERIOD} seconds by the control loop's
+	 * thread, and should only be called directly in manual mode.
+	 */
+	public static void runOnce() {
+		Runnable[] currentTasks = tasks;
+		for (int i = 0; i < currentTasks.length; i++) {
+			try {
+				currentTasks[i].run();
+			} catch (RuntimeException e) {
+				DriverStation.reportError("ControlLoop task failed: " + e, true);
+			}
+		}
+	}
+}
@@ -11,6 +11,7 @@ import edu.wpi.first.wpilibj.SpeedController;
  *
  * @author Uriah "Jhonny" Rokach
  * @see SpeedController
+ * @see MultiSpeedController
  */
 public class DoubleSpeedcontroller implements SpeedController {
 
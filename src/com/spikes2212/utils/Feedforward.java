@@ -0,0 +1,99 @@
+package com.spikes2212.utils;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * This class calculates the speed a motor needs to move at a given velocity
+ * and acceleration, without waiting for a PID loop to find it.
+ *
+ * <br>
+ * <br>
+ * The gains are in volts: kS is the voltage needed to start moving, kV is the
+ * voltage needed for each unit of velocity and kA is the voltage needed for
+ * each unit of acceleration. The voltage is then divided by the battery's
+ * current voltage, so the motor gets the same voltage, and moves at the same
+ * velocity, as the battery drains.
+ *
+ * @see VoltageMonitor
+ */
+public class Feedforward {
+
+	/**
+	 * The lowest battery voltage the speed is calculated with, so a momentary
+	 * drop doesn't make the speed jump.
+	 */
+	public static final double MIN_BATTERY_VOLTAGE = 6;
+
+	protected final double kS;
+	protected final double kV;
+	protected final double kA;
+
+	/**
+	 * Constructs a new {@link Feedforward} with the given gains.
+	 *
+	 * @param kS
+	 *            the voltage needed to start moving
+	 * @param kV
+	 *            the voltage needed for each unit of velocity
+	 * @param kA
+	 *            the voltage needed for each unit of acceleration
+	 */
+	public Feedforward(double kS, double kV, double kA) {
+		this.kS = kS;
+		this.kV = kV;
+		this.kA = kA;
+	}
+
+	/**
+	 * Constructs a new {@link Feedforward} without an acceleration gain.
+	 *
+	 * @param kS
+	 *            the voltage needed to start moving
+	 * @param kV
+	 *            the voltage needed for each unit of velocity
+	 */
+	public Feedforward(double kS, double kV) {
+		this(kS, kV, 0);
+	}
+
+	/**
+	 * Calculates the voltage needed to move at the given velocity and
+	 * acceleration.
+	 *
+	 * @param velocity
+	 *            the velocity to move at
+	 * @param acceleration
+	 *            the acceleration to move with
+	 * @return the needed voltage.
+	 */
+	public double calculateVoltage(double velocity, double acceleration) {
+		return kS * Math.signum(velocity) + kV * velocity + kA * acceleration;
+	}
+
+	/**
+	 * Calculates the speed needed to move at the given velocity and
+	 * acceleration with the battery's current voltage.
+	 *
+	 * @param velocity
+	 *            the velocity to move at
+	 * @param acceleration
+	 *            the acceleration to move with
+	 * @return the needed speed, between -1 and 1.
+	 */
+	public double calculate(double velocity, double acceleration) {
+		double batteryVoltage = Math.max(MIN_BATTERY_VOLTAGE, DriverStation.getInstance().getBatteryVoltage());
+		return Math.max(-1, Math.min(1, calculateVoltage(velocity, acceleration) / batteryVoltage));
+	}
+
+	/**
+	 * Calculates the speed needed to move at the given constant velocity with
+	 * the battery's current voltage.
+	 *
+	 * @param velocity
+	 *            the velocity to move at
+	 * @return the needed speed, between -1 and 1.
+	 */
+	public double calculate(double velocity) {
+		return calculate(velocity, 0);
+	}
+}
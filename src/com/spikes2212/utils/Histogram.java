@@ -0,0 +1,108 @@
+package com.spikes2212.utils;
+
+/**
+ * This class counts recorded values into fixed width buckets, allowing you to
+ * get percentiles of values such as latencies or durations without storing
+ * every value and without allocating memory while recording.
+ *
+ * <br>
+ * <br>
+ * Values larger than the last bucket are counted in the last bucket. The
+ * largest value recorded is kept separately, so {@link #getMax()} is exact.
+ */
+public class Histogram {
+
+	private final long[] counts;
+	private final double bucketWidth;
+	private long count;
+	private double max;
+
+	/**
+	 * Constructs a new {@link Histogram} with the given amount of buckets, the
+	 * first starting at 0.
+	 *
+	 * @param bucketWidth
+	 *            the range of values each bucket counts. Percentiles are
+	 *            accurate up to this width.
+	 * @param bucketCount
+	 *            the amount of buckets. Values of {@code bucketWidth * bucketCount}
+	 *            and above are all counted in the last bucket.
+	 */
+	public Histogram(double bucketWidth, int bucketCount) {
+		if (bucketWidth <= 0 || bucketCount < 1) {
+			throw new IllegalArgumentException("Cannot construct Histogram without buckets");
+		}
+		this.bucketWidth = bucketWidth;
+		this.counts = new long[bucketCount];
+	}
+
+	/**
+	 * Records a value. Negative values are counted in the first bucket.
+	 *
+	 * @param value
+	 *            the value to record
+	 */
+	public synchronized void record(double value) {
+		int bucket = (int) (value / bucketWidth);
+		if (bucket < 0) {
+			bucket = 0;
+		} else if (bucket >= counts.length) {
+			bucket = counts.length - 1;
+		}
+		counts[bucket]++;
+		if (count == 0 || value > max) {
+			max = value;
+		}
+		count++;
+	}
+
+	/**
+	 * Returns the value below which the given fraction of the recorded values
+	 * are. The value returned is the upper edge of the bucket the percentile
+	 * falls in, or the largest value recorded if it is smaller.
+	 *
+	 * @param percentile
+	 *            the wanted percentile, between 0 and 1. For example, 0.99 for
+	 *            the 99th percentile.
+	 * @return the value of the given percentile, or 0 if nothing was recorded.
+	 */
+	public synchronized double getPercentile(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		long target = (long) Math.ceil(percentile * count);
+		long seen = 0;
+		for (int i = 0; i < counts.length - 1; i++) {
+			seen += counts[i];
+			if (seen >= target) {
+				return Math.min((i + 1) * bucketWidth, max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * @return the largest value recorded, or 0 if nothing was recorded.
+	 */
+	public synchronized double getMax() {
+		return max;
+	}
+
+	/**
+	 * @return the amount of values recorded.
+	 */
+	public synchronized long getCount() {
+		return count;
+	}
+
+	/**
+	 * Clears all of the recorded values.
+	 */
+	public synchronized void reset() {
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = 0;
+		}
+		count = 0;
+		max = 0;
+	}
+}
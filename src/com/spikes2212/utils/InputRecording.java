@@ -0,0 +1,172 @@
+package com.spikes2212.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * This class records the inputs of an {@link XboXUID}, so they can be saved to
+ * a file and played back later using a {@link RecordedXboXUID}, for example as
+ * an autonomous routine or to test commands with a driver's real inputs.
+ *
+ * <br>
+ * <br>
+ * Call {@link #sample(XboXUID)} once every robot loop, for example in
+ * robotPeriodic after {@link XboXUID#update()}. Each sample keeps all of the
+ * axes, the buttons and the POV in primitive arrays.
+ *
+ * @see RecordedXboXUID
+ */
+public class InputRecording {
+
+	private static final int MAGIC = 0x53504b52;
+	private static final int VERSION = 1;
+	private static final int AXIS_COUNT = 6;
+
+	private final double period;
+	private float[] axes;
+	private int[] buttons;
+	private short[] povs;
+	private int size = 0;
+
+	/**
+	 * Constructs a new empty {@link InputRecording}.
+	 *
+	 * @param period
+	 *            the time between samples, in seconds. This is usually the
+	 *            robot loop's period, 0.02 seconds.
+	 */
+	public InputRecording(double period) {
+		this(period, 1024);
+	}
+
+	private InputRecording(double period, int capacity) {
+		this.period = period;
+		this.axes = new float[capacity * AXIS_COUNT];
+		this.buttons = new int[capacity];
+		this.povs = new short[capacity];
+	}
+
+	/**
+	 * Adds the current inputs of the given joystick to the end of this
+	 * recording.
+	 *
+	 * @param joystick
+	 *            the joystick to sample
+	 */
+	public void sample(XboXUID joystick) {
+		if (size == buttons.length) {
+			int capacity = size * 2;
+			axes = Arrays.copyOf(axes, capacity * AXIS_COUNT);
+			buttons = Arrays.copyOf(buttons, capacity);
+			povs = Arrays.copyOf(povs, capacity);
+		}
+		joystick.updateSnapshot();
+		for (int i = 0; i < AXIS_COUNT; i++) {
+			axes[size * AXIS_COUNT + i] = (float) joystick.axes[i];
+		}
+		buttons[size] = joystick.buttons;
+		povs[size] = (short) joystick.pov;
+		size++;
+	}
+
+	/**
+	 * Removes all of the samples from this recording.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * @return the amount of samples in this recording.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the time between samples, in seconds.
+	 */
+	public double getPeriod() {
+		return period;
+	}
+
+	/**
+	 * @return the duration of this recording, in seconds.
+	 */
+	public double getDuration() {
+		return size * period;
+	}
+
+	double getAxis(int sample, int axis) {
+		return axes[sample * AXIS_COUNT + axis];
+	}
+
+	int getButtons(int sample) {
+		return buttons[sample];
+	}
+
+	int getPOV(int sample) {
+		return povs[sample];
+	}
+
+	/**
+	 * Writes this recording to a binary file.
+	 *
+	 * @param file
+	 *            the file to write to. If it exists, it is overwritten.
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public void save(File file) throws IOException {
+		try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeDouble(period);
+			output.writeInt(size);
+			for (int i = 0; i < size; i++) {
+				for (int j = 0; j < AXIS_COUNT; j++) {
+					output.writeFloat(axes[i * AXIS_COUNT + j]);
+				}
+				output.writeInt(buttons[i]);
+				output.writeShort(povs[i]);
+			}
+		}
+	}
+
+	/**
+	 * Reads a recording from a file written by {@link #save(File)}.
+	 *
+	 * @param file
+	 *            the file to read
+	 * @return the recording in the file.
+	 * @throws IOException
+	 *             if the file cannot be read or isn't a recording
+	 */
+	public static InputRecording load(File file) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+				throw new IOException(file + " is not an input recording");
+			}
+			double period = input.readDouble();
+			int size = input.readInt();
+			InputRecording recording = new InputRecording(period, Math.max(size, 1));
+			for (int i = 0; i < size; i++) {
+				for (int j = 0; j < AXIS_COUNT; j++) {
+					recording.axes[i * AXIS_COUNT + j] = input.readFloat();
+				}
+				recording.buttons[i] = input.readInt();
+				recording.povs[i] = input.readShort();
+			}
+			recording.size = size;
+			return recording;
+		}
+	}
+}
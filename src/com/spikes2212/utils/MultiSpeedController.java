@@ -0,0 +1,177 @@
+package com.spikes2212.utils;
+
+import edu.wpi.first.wpilibj.SpeedController;
+
+/**
+ * This class joins any amount of <a href=
+ * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/SpeedController.html">SpeedController</a>s
+ * into one, making a <a href=
+ * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/SpeedController.html">SpeedController</a>
+ * that activates all of them. Unlike nesting {@link DoubleSpeedcontroller}s,
+ * every speed is written directly to each member.
+ *
+ * <br>
+ * <br>
+ * Each member can be inverted and scaled on its own. Inverting the whole
+ * group using {@link #setInverted(boolean)} is done by this class, and does
+ * not change the members' own inversion.
+ *
+ * @see SpeedController
+ * @see DoubleSpeedcontroller
+ */
+public class MultiSpeedController implements SpeedController {
+
+	private final SpeedController[] speedControllers;
+	private final double[] scales;
+	private final boolean[] inverted;
+	private final double[] gains;
+	private boolean isInverted = false;
+	private boolean skipUnchanged = false;
+	private boolean followerMode = false;
+	private double speed = 0;
+	private boolean hasSpeed = false;
+
+	/**
+	 * Constructs a {@link SpeedController} from the given {@link SpeedController}s
+	 * that acts like all of them. The first speed controller is the leader,
+	 * which is the only one written to in follower mode.
+	 *
+	 * @param speedControllers
+	 *            the speed controllers to join, the leader first
+	 *
+	 * @throws IllegalArgumentException
+	 *             when no speed controllers are given
+	 */
+	public MultiSpeedController(SpeedController... speedControllers) {
+		if (speedControllers.length < 1) {
+			throw new IllegalArgumentException("Cannot construct MultiSpeedController without speed controllers");
+		}
+		this.speedControllers = speedControllers.clone();
+		this.scales = new double[speedControllers.length];
+		this.inverted = new boolean[speedControllers.length];
+		this.gains = new double[speedControllers.length];
+		for (int i = 0; i < speedControllers.length; i++) {
+			scales[i] = 1;
+			gains[i] = 1;
+		}
+	}
+
+	/**
+	 * Sets whether one member of this group is inverted relative to the rest.
+	 *
+	 * @param index
+	 *            the index of the member, in the order given to the constructor
+	 * @param inverted
+	 *            true if the member should get the opposite speed
+	 */
+	public void setInverted(int index, boolean inverted) {
+		this.inverted[index] = inverted;
+		updateGain(index);
+	}
+
+	/**
+	 * Sets the value the speed given to one member of this group is multiplied
+	 * by, for example to balance motors with different gearings.
+	 *
+	 * @param index
+	 *            the index of the member, in the order given to the constructor
+	 * @param scale
+	 *            the scale of the member's speed. Must not be negative; use
+	 *            {@link #setInverted(int, boolean)} to invert a member.
+	 */
+	public void setScale(int index, double scale) {
+		scales[index] = scale;
+		updateGain(index);
+	}
+
+	private void updateGain(int index) {
+		gains[index] = inverted[index] ? -scales[index] : scales[index];
+		hasSpeed = false;
+	}
+
+	/**
+	 * Sets whether setting the same speed twice in a row writes it to the
+	 * members again. Skipping these writes saves the time of sending them,
+	 * but means a member that was changed directly isn't corrected.
+	 *
+	 * @param skipUnchanged
+	 *            true if unchanged speeds should not be written again
+	 */
+	public void setSkipUnchanged(boolean skipUnchanged) {
+		this.skipUnchanged = skipUnchanged;
+	}
+
+	/**
+	 * Sets whether speeds are written only to the leader. Use this when the
+	 * other members are set to follow the leader by the hardware itself, for
+	 * example using the follower mode of CAN speed controllers.
+	 *
+	 * <br>
+	 * <br>
+	 * {@link #disable()} and {@link #stopMotor()} still go to all members.
+	 *
+	 * @param followerMode
+	 *            true if only the leader should be written to
+	 */
+	public void setFollowerMode(boolean followerMode) {
+		this.followerMode = followerMode;
+		hasSpeed = false;
+	}
+
+	@Override
+	public void pidWrite(double output) {
+		set(output);
+	}
+
+	/**
+	 * Returns the last speed set to this group.
+	 *
+	 * @return the last speed set, before any inversion and scaling.
+	 */
+	@Override
+	public double get() {
+		return speed;
+	}
+
+	@Override
+	public void set(double speed) {
+		if (skipUnchanged && hasSpeed && speed == this.speed) {
+			return;
+		}
+		this.speed = speed;
+		this.hasSpeed = true;
+		double output = isInverted ? -speed : speed;
+		int count = followerMode ? 1 : speedControllers.length;
+		for (int i = 0; i < count; i++) {
+			speedControllers[i].set(output * gains[i]);
+		}
+	}
+
+	@Override
+	public void setInverted(boolean isInverted) {
+		this.isInverted = isInverted;
+		hasSpeed = false;
+	}
+
+	@Override
+	public boolean getInverted() {
+		return isInverted;
+	}
+
+	@Override
+	public void disable() {
+		for (SpeedController speedController : speedControllers) {
+			speedController.disable();
+		}
+		hasSpeed = false;
+	}
+
+	@Override
+	public void stopMotor() {
+		for (SpeedController speedController : speedControllers) {
+			speedController.stopMotor();
+		}
+		speed = 0;
+		hasSpeed = false;
+	}
+}
@@ -0,0 +1,283 @@
+package com.spikes2212.utils;
+
+import edu.wpi.first.wpilibj.PIDOutput;
+import edu.wpi.first.wpilibj.PIDSource;
+import edu.wpi.first.wpilibj.PIDSourceType;
+
+/**
+ * This class is a PID loop that works like wpilib's <a href=
+ * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>,
+ * but runs on the {@link ControlLoop} and measures time using the default
+ * {@link Clock}. It therefore doesn't need the HAL, and a {@link VirtualClock}
+ * in manual mode steps it together with everything else, for example in a
+ * simulation.
+ *
+ * <br>
+ * <br>
+ * The gains have the same meaning as the gains of a <a href=
+ * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+ * with its default period of {@value #GAIN_PERIOD} seconds, so gains tuned for
+ * one work for the other, even though this loop runs every
+ * {@link ControlLoop#PERIOD} seconds. Like a <a href=
+ * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>,
+ * when the source's type is {@link PIDSourceType#kRate}, the P term acts on
+ * the accumulated error and the D term acts on the error.
+ *
+ * <br>
+ * <br>
+ * The loop can either run by itself after {@link #enable()}, writing to its
+ * output, or be stepped by its owner using {@link #calculate()}, so several
+ * loops are calculated together.
+ *
+ * @see ControlLoop
+ * @see PIDSettings
+ */
+public class PIDLoop {
+
+	/**
+	 * The period of the <a href=
+	 * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDController.html">PIDController</a>
+	 * the gains are scaled to, in seconds.
+	 */
+	public static final double GAIN_PERIOD = 0.05;
+
+	private final PIDSource source;
+	private final PIDOutput output;
+	private final Runnable task = this::run;
+	private double kP, kI, kD;
+	private double minimumOutput = -1, maximumOutput = 1;
+	private double tolerance = 0;
+	private double setpoint = 0;
+	private double totalError = 0;
+	private double previousError = Double.NaN;
+	private double lastTime;
+	private double result = 0;
+	private boolean enabled = false;
+
+	/**
+	 * Constructs a new {@link PIDLoop} that is stepped using
+	 * {@link #calculate()}.
+	 *
+	 * @param kP
+	 *            the proportional gain
+	 * @param kI
+	 *            the integral gain
+	 * @param kD
+	 *            the derivative gain
+	 * @param source
+	 *            the <a href=
+	 *            "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSource</a>
+	 *            giving the feedback of the loop
+	 */
+	public PIDLoop(double kP, double kI, double kD, PIDSource source) {
+		this(kP, kI, kD, source, value -> {
+		});
+	}
+
+	/**
+	 * Constructs a new {@link PIDLoop} that writes to the given output while
+	 * it is enabled.
+	 *
+	 * @param kP
+	 *            the proportional gain
+	 * @param kI
+	 *            the integral gain
+	 * @param kD
+	 *            the derivative gain
+	 * @param source
+	 *            the <a href=
+	 *            "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSource</a>
+	 *            giving the feedback of the loop
+	 * @param output
+	 *            the <a href=
+	 *            "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDOutput.html">PIDOutput</a>
+	 *            the loop writes to
+	 */
+	public PIDLoop(double kP, double kI, double kD, PIDSource source, PIDOutput output) {
+		this.kP = kP;
+		this.kI = kI;
+		this.kD = kD;
+		this.source = source;
+		this.output = output;
+	}
+
+	/**
+	 * Constructs a new {@link PIDLoop} using the gains of the given
+	 * {@link PIDSettings}, whose tolerance is the given settings' tolerance.
+	 *
+	 * @param settings
+	 *            the {@link PIDSettings} of the loop
+	 * @param source
+	 *            the <a href=
+	 *            "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDSource.html">PIDSource</a>
+	 *            giving the feedback of the loop
+	 * @param output
+	 *            the <a href=
+	 *            "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/PIDOutput.html">PIDOutput</a>
+	 *            the loop writes to
+	 */
+	public PIDLoop(PIDSettings settings, PIDSource source, PIDOutput output) {
+		this(settings.getKP(), settings.getKI(), settings.getKD(), source, output);
+		setAbsoluteTolerance(settings.getTolerance());
+	}
+
+	/**
+	 * Calculates the next output of the loop from the source's current value,
+	 * without writing it to the output.
+	 *
+	 * @return the output, within the output range.
+	 */
+	public synchronized double calculate() {
+		double time = Clock.now();
+		double dt = Double.isNaN(previousError) || time <= lastTime ? ControlLoop.PERIOD : time - lastTime;
+		lastTime = time;
+		double error = setpoint - source.pidGet();
+		double steps = dt / GAIN_PERIOD;
+		if (source.getPIDSourceType() == PIDSourceType.kRate) {
+			if (kP != 0) {
+				totalError = clamp(totalError + error * steps, minimumOutput / kP, maximumOutput / kP);
+			}
+			result = kP * totalError + kD * error;
+		} else {
+			if (kI != 0) {
+				totalError = clamp(totalError + error * steps, minimumOutput / kI, maximumOutput / kI);
+			}
+			double change = Double.isNaN(previousError) ? 0 : (error - previousError) / steps;
+			result = kP * error + kI * totalError + kD * change;
+		}
+		previousError = error;
+		result = clamp(result, minimumOutput, maximumOutput);
+		return result;
+	}
+
+	private void run() {
+		output.pidWrite(calculate());
+	}
+
+	/**
+	 * Starts running the loop on the {@link ControlLoop}, writing its output
+	 * every {@link ControlLoop#PERIOD} seconds.
+	 */
+	public synchronized void enable() {
+		if (!enabled) {
+			enabled = true;
+			ControlLoop.add(task);
+		}
+	}
+
+	/**
+	 * Stops running the loop, writes 0 to the output and clears the
+	 * accumulated error.
+	 */
+	public synchronized void disable() {
+		if (enabled) {
+			enabled = false;
+			ControlLoop.remove(task);
+			output.pidWrite(0);
+		}
+		reset();
+	}
+
+	/**
+	 * Clears the accumulated error and the previous error of the loop.
+	 */
+	public synchronized void reset() {
+		totalError = 0;
+		previousError = Double.NaN;
+		result = 0;
+	}
+
+	/**
+	 * @return true if the loop is running on the {@link ControlLoop}.
+	 */
+	public synchronized boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets the gains of the loop.
+	 *
+	 * @param kP
+	 *            the proportional gain
+	 * @param kI
+	 *            the integral gain
+	 * @param kD
+	 *            the derivative gain
+	 */
+	public synchronized void setPID(double kP, double kI, double kD) {
+		this.kP = kP;
+		this.kI = kI;
+		this.kD = kD;
+	}
+
+	/**
+	 * Sets the value the loop moves the source to.
+	 *
+	 * @param setpoint
+	 *            the setpoint, in the units of the source
+	 */
+	public synchronized void setSetpoint(double setpoint) {
+		this.setpoint = setpoint;
+	}
+
+	/**
+	 * @return the value the loop moves the source to.
+	 */
+	public synchronized double getSetpoint() {
+		return setpoint;
+	}
+
+	/**
+	 * Sets the range the output of the loop is kept within.
+	 *
+	 * @param minimumOutput
+	 *            the lowest output
+	 * @param maximumOutput
+	 *            the highest output
+	 */
+	public synchronized void setOutputRange(double minimumOutput, double maximumOutput) {
+		if (minimumOutput > maximumOutput) {
+			throw new IllegalArgumentException("Cannot set an output range whose minimum is above its maximum");
+		}
+		this.minimumOutput = minimumOutput;
+		this.maximumOutput = maximumOutput;
+	}
+
+	/**
+	 * Sets the largest error at which the loop is on target.
+	 *
+	 * @param tolerance
+	 *            the tolerance, in the units of the source
+	 */
+	public synchronized void setAbsoluteTolerance(double tolerance) {
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Returns the difference between the setpoint and the source's current
+	 * value.
+	 *
+	 * @return the current error, in the units of the source.
+	 */
+	public synchronized double getError() {
+		return setpoint - source.pidGet();
+	}
+
+	/**
+	 * @return true if the current error is within the tolerance.
+	 */
+	public synchronized boolean onTarget() {
+		return Math.abs(getError()) <= tolerance;
+	}
+
+	/**
+	 * @return the last output the loop calculated.
+	 */
+	public synchronized double get() {
+		return result;
+	}
+
+	private static double clamp(double value, double minimum, double maximum) {
+		return Math.max(minimum, Math.min(maximum, value));
+	}
+}
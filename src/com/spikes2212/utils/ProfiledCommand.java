@@ -0,0 +1,157 @@
+package com.spikes2212.utils;
+
+import com.spikes2212.utils.CommandProfiler.Phase;
+import com.spikes2212.utils.CommandProfiler.Profile;
+
+import edu.wpi.first.wpilibj.command.Command;
+
+/**
+ * This class is a {@link Command} whose phases are timed by the
+ * {@link CommandProfiler} while profiling is on. Instead of overriding
+ * {@link #initialize()}, {@link #execute()}, {@link #isFinished()} and
+ * {@link #end()}, subclasses override {@link #doInitialize()},
+ * {@link #doExecute()}, {@link #doIsFinished()} and {@link #doEnd()}, which
+ * are called and timed by them. A phase that throws is still recorded.
+ *
+ * <br>
+ * <br>
+ * Commands are recorded into the {@link Profile} named by their name, so the
+ * commands of one class share a {@link Profile} unless they are given names.
+ * A command can be recorded into another {@link Profile} using
+ * {@link #setProfileName(String)}, for example to tell apart two commands of
+ * the same class.
+ *
+ * @see CommandProfiler
+ */
+public abstract class ProfiledCommand extends Command {
+
+	private String profileName;
+	Profile profile;
+
+	/**
+	 * Constructs a new {@link ProfiledCommand} named by its class.
+	 */
+	public ProfiledCommand() {
+		super();
+	}
+
+	/**
+	 * Constructs a new {@link ProfiledCommand} with the given name.
+	 *
+	 * @param name
+	 *            the name of the command
+	 */
+	public ProfiledCommand(String name) {
+		super(name);
+	}
+
+	/**
+	 * Constructs a new {@link ProfiledCommand} named by its class, with the
+	 * given timeout.
+	 *
+	 * @param timeout
+	 *            the time before this command times out, in seconds
+	 */
+	public ProfiledCommand(double timeout) {
+		super(timeout);
+	}
+
+	/**
+	 * Constructs a new {@link ProfiledCommand} with the given name and
+	 * timeout.
+	 *
+	 * @param name
+	 *            the name of the command
+	 * @param timeout
+	 *            the time before this command times out, in seconds
+	 */
+	public ProfiledCommand(String name, double timeout) {
+		super(name, timeout);
+	}
+
+	/**
+	 * Sets the name of the {@link Profile} this command's phases are recorded
+	 * into. All of the commands given the same name share one {@link Profile}.
+	 * This should be called before the command is first started.
+	 *
+	 * @param profileName
+	 *            the name of the profile, or null to use the command's name
+	 */
+	public void setProfileName(String profileName) {
+		this.profileName = profileName;
+		this.profile = null;
+	}
+
+	/**
+	 * @return the name of the {@link Profile} this command's phases are
+	 *         recorded into, or null if it is the command's name.
+	 */
+	public String getProfileName() {
+		return profileName;
+	}
+
+	@Override
+	protected void initialize() {
+		long startTime = CommandProfiler.start();
+		try {
+			doInitialize();
+		} finally {
+			CommandProfiler.stop(this, Phase.INITIALIZE, startTime);
+		}
+	}
+
+	@Override
+	protected void execute() {
+		long startTime = CommandProfiler.start();
+		try {
+			doExecute();
+		} finally {
+			CommandProfiler.stop(this, Phase.EXECUTE, startTime);
+		}
+	}
+
+	@Override
+	protected boolean isFinished() {
+		long startTime = CommandProfiler.start();
+		try {
+			return doIsFinished();
+		} finally {
+			CommandProfiler.stop(this, Phase.IS_FINISHED, startTime);
+		}
+	}
+
+	@Override
+	protected void end() {
+		long startTime = CommandProfiler.start();
+		try {
+			doEnd();
+		} finally {
+			CommandProfiler.stop(this, Phase.END, startTime);
+		}
+	}
+
+	/**
+	 * Called just before this command runs the first time.
+	 */
+	protected void doInitialize() {
+	}
+
+	/**
+	 * Called repeatedly while this command is scheduled to run.
+	 */
+	protected void doExecute() {
+	}
+
+	/**
+	 * @return true when this command no longer needs to run
+	 *         {@link #doExecute()}.
+	 */
+	protected abstract boolean doIsFinished();
+
+	/**
+	 * Called once after {@link #doIsFinished()} returns true, and by default
+	 * when this command is interrupted.
+	 */
+	protected void doEnd() {
+	}
+}
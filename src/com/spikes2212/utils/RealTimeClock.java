@@ -0,0 +1,17 @@
+package com.spikes2212.utils;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * This class is a {@link Clock} which reads the FPGA's timestamp, which counts
+ * the seconds since the FPGA started and is never changed.
+ *
+ * @see Clock
+ */
+public class RealTimeClock extends Clock {
+
+	@Override
+	public double getTime() {
+		return Timer.getFPGATimestamp();
+	}
+}
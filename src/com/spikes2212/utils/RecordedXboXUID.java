@@ -0,0 +1,135 @@
+package com.spikes2212.utils;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * This class is an {@link XboXUID} that plays back an {@link InputRecording}
+ * instead of reading a real joystick. It can be used anywhere an
+ * {@link XboXUID} is used, so commands and buttons bound to its buttons and
+ * axes act exactly as they did when the recording was made. Only the methods
+ * {@link XboXUID} adds are played back, not the raw methods of
+ * {@link edu.wpi.first.wpilibj.XboxController}.
+ *
+ * <br>
+ * <br>
+ * Every call to {@link #update()} plays exactly the next sample, so calling it
+ * once every robot loop, as the recording was sampled, replays the inputs loop
+ * by loop without skipping or repeating samples, however long each loop took.
+ * Until {@link #update()} is first called, the next sample is played whenever
+ * the recording's period has passed on the given clock since the last one, so
+ * the clock only sets the speed of the playback and samples are still played
+ * one by one.
+ *
+ * <br>
+ * <br>
+ * Before {@link #start()} and after the recording ends, all of the axes are 0
+ * and nothing is pressed.
+ *
+ * @see InputRecording
+ */
+public class RecordedXboXUID extends XboXUID {
+
+	private final InputRecording recording;
+	private final DoubleSupplier clock;
+	private double lastSampleTime;
+	private boolean playing = false;
+	private int currentSample = -1;
+
+	/**
+	 * Constructs a new {@link RecordedXboXUID} that, until {@link #update()}
+	 * is called, plays the given recording by the time of the default
+	 * {@link Clock}, which is real time unless it was replaced.
+	 *
+	 * @param port
+	 *            the port of the joystick this recording replaces
+	 * @param recording
+	 *            the {@link InputRecording} to play
+	 */
+	public RecordedXboXUID(int port, InputRecording recording) {
+		this(port, recording, Clock::now);
+	}
+
+	/**
+	 * Constructs a new {@link RecordedXboXUID} that, until {@link #update()}
+	 * is called, plays the given recording by the time of the given clock.
+	 *
+	 * @param port
+	 *            the port of the joystick this recording replaces
+	 * @param recording
+	 *            the {@link InputRecording} to play
+	 * @param clock
+	 *            a {@link DoubleSupplier} supplying the current time, in seconds
+	 */
+	public RecordedXboXUID(int port, InputRecording recording, DoubleSupplier clock) {
+		super(port);
+		this.recording = recording;
+		this.clock = clock;
+	}
+
+	/**
+	 * Starts playing the recording from its beginning. The first sample is
+	 * played by the next snapshot update, and until then nothing is pressed.
+	 */
+	public void start() {
+		playing = true;
+		currentSample = -1;
+		readSnapshot();
+	}
+
+	/**
+	 * Stops playing the recording, releasing all of the inputs.
+	 */
+	public void stop() {
+		playing = false;
+		currentSample = -1;
+		readSnapshot();
+	}
+
+	/**
+	 * @return true if the recording is playing and hasn't ended yet.
+	 */
+	public boolean isPlaying() {
+		return playing && currentSample < recording.size();
+	}
+
+	/**
+	 * Plays the next sample of the recording, if it is playing.
+	 */
+	@Override
+	public void update() {
+		if (isPlaying()) {
+			currentSample++;
+		}
+		super.update();
+	}
+
+	@Override
+	protected void updateSnapshot() {
+		if (isUpdatedManually() || !isPlaying()) {
+			return;
+		}
+		double now = clock.getAsDouble();
+		if (currentSample < 0 || now - lastSampleTime >= recording.getPeriod() - 1e-6) {
+			currentSample++;
+			lastSampleTime = now;
+			readSnapshot();
+		}
+	}
+
+	@Override
+	protected void readSnapshot() {
+		if (currentSample < 0 || currentSample >= recording.size()) {
+			for (int i = 0; i < axes.length; i++) {
+				axes[i] = 0;
+			}
+			buttons = 0;
+			pov = -1;
+			return;
+		}
+		for (int i = 0; i < axes.length; i++) {
+			axes[i] = recording.getAxis(currentSample, i);
+		}
+		buttons = recording.getButtons(currentSample);
+		pov = recording.getPOV(currentSample);
+	}
+}
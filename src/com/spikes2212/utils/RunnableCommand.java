@@ -1,23 +1,79 @@
 package com.spikes2212.utils;
 
-import edu.wpi.first.wpilibj.command.Command;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.wpi.first.wpilibj.DriverStation;
 
 /**
- * This class enables you to run any segment of code in a new thread as a
+ * This class enables you to run any segment of code in a separate thread as a
  * command, allowing you, for example, to easily make a button change the value
  * of a variable in the code.
  *
+ * <br>
+ * <br>
+ * By default, every run starts a new thread of its own. Short runnables that
+ * are started often can instead share a pool of
+ * {@value #DEFAULT_THREAD_COUNT} threads using {@link #setPooled(boolean)},
+ * which saves starting a thread every time. The amount of shared threads can
+ * be changed using {@link #setThreadCount(int)}. When all of them are busy,
+ * runs wait in a queue of {@value #QUEUE_CAPACITY} runs, and a warning is
+ * reported. When the queue is full, the command reports a warning and
+ * finishes without running.
+ *
+ * <br>
+ * <br>
+ * A runnable that runs for a long time, such as a loop running while a button
+ * is held, keeps one of the shared threads busy the whole time, and enough of
+ * them stop every other pooled {@link RunnableCommand} from running, so such
+ * runnables should not be pooled.
+ *
  * @author Uriah "Jhonny" Rokach
- * @see Thread
+ * @see ThreadPoolExecutor
  */
-public class RunnableCommand extends Command {
+public class RunnableCommand extends ProfiledCommand {
 
-    private Runnable runnable;
-    private Thread t;
+    /**
+     * The default amount of threads shared by all {@link RunnableCommand}s.
+     */
+    public static final int DEFAULT_THREAD_COUNT = 4;
+
+    /**
+     * The amount of runs that can wait for a free thread.
+     */
+    public static final int QUEUE_CAPACITY = 64;
+
+    private static final AtomicInteger createdThreads = new AtomicInteger();
+
+    /**
+     * The threads all pooled {@link RunnableCommand}s run on. Idle threads are stopped after a while, so it costs nothing when
+     * unused.
+     */
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_THREAD_COUNT,
+            DEFAULT_THREAD_COUNT, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "RunnableCommand-" + createdThreads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    static {
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    private final Runnable runnable;
+    private final Runnable timedRunnable = this::runTimed;
+    private Future<?> future;
+    private volatile double lastRunTime;
+    private boolean pooled = false;
 
     /**
 	 * This constructs a command that runs the {@link Runnable#run()} of the given
-	 * runnable in a new thread whenever started.
+	 * runnable in a separate thread whenever started.
 	 * 
 	 * <br>
 	 * <br>
@@ -32,7 +88,7 @@ public class RunnableCommand extends Command {
 
     /**
 	 * This constructs a command that runs the {@link Runnable#run()} of the given
-	 * {@link RunnableCommand} in a new thread whenever started. 
+	 * {@link RunnableCommand} in a separate thread whenever started. 
 	 * 
 	 * <br>
 	 * <br>
@@ -49,24 +105,140 @@ public class RunnableCommand extends Command {
         setRunWhenDisabled(runInDisabled);
     }
 
+    /**
+	 * This constructs a command that runs the {@link Runnable#run()} of the given
+	 * runnable in a separate thread whenever started, and cancels it if it takes
+	 * longer than the given timeout.
+	 *
+	 * <br>
+	 * <br>
+	 * Cancelling interrupts the thread running the runnable, so long runnables
+	 * should check {@link Thread#interrupted()} to stop in time.
+	 *
+	 * @param runnable
+	 *            the {@link Runnable} to run whenever this command starts
+	 * @param runInDisabled
+	 *            whether this command should also run while the robot is disabled
+	 * @param timeout
+	 *            the time the runnable is allowed to run, in seconds
+	 */
+    public RunnableCommand(Runnable runnable, boolean runInDisabled, double timeout) {
+        this(runnable, runInDisabled);
+        setTimeout(timeout);
+    }
+
+    /**
+     * Sets whether the runnable runs on the threads shared by all pooled
+     * {@link RunnableCommand}s, instead of on a new thread of its own whenever
+     * this command starts. This should only be used for runnables that finish
+     * quickly, so they don't keep other pooled {@link RunnableCommand}s
+     * waiting.
+     *
+     * @param pooled
+     *            true to run the runnable on the shared threads
+     */
+    public void setPooled(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    /**
+     * Sets the amount of threads shared by all pooled {@link RunnableCommand}s.
+     *
+     * @param threadCount
+     *            the amount of threads, at least 1
+     */
+    public static synchronized void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Cannot run RunnableCommands without threads");
+        }
+        if (threadCount > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threadCount);
+            executor.setCorePoolSize(threadCount);
+        } else {
+            executor.setCorePoolSize(threadCount);
+            executor.setMaximumPoolSize(threadCount);
+        }
+    }
+
+    /**
+     * Runs the runnable and measures how long it took.
+     */
+    private void runTimed() {
+        long startTime = System.nanoTime();
+        try {
+            runnable.run();
+        } catch (RuntimeException e) {
+            DriverStation.reportError("RunnableCommand failed: " + e, true);
+            throw e;
+        } finally {
+            lastRunTime = (System.nanoTime() - startTime) / 1e9;
+        }
+    }
+
+    /**
+     * Returns the time the last run of this command took, including runs that
+     * were cancelled or failed.
+     *
+     * @return the duration of the last run, in seconds, or 0 if it never ran.
+     */
+    public double getLastRunTime() {
+        return lastRunTime;
+    }
+
+    /**
+     * Returns the amount of runs waiting for a free thread.
+     *
+     * @return the amount of queued {@link RunnableCommand} runs.
+     */
+    public static int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the amount of runnables currently running.
+     *
+     * @return the amount of busy {@link RunnableCommand} threads.
+     */
+    public static int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
     // Called just before this Command runs the first time
-    protected void initialize() {
-        t = new Thread(runnable);
-        t.start();
+    protected void doInitialize() {
+        try {
+            if (pooled) {
+                if (executor.getActiveCount() >= executor.getMaximumPoolSize()) {
+                    DriverStation.reportWarning("All RunnableCommand threads are busy, the runnable is waiting",
+                            false);
+                }
+                future = executor.submit(timedRunnable);
+            } else {
+                FutureTask<?> task = new FutureTask<>(timedRunnable, null);
+                Thread thread = new Thread(task, "RunnableCommand-" + createdThreads.incrementAndGet());
+                thread.setDaemon(true);
+                thread.start();
+                future = task;
+            }
+        } catch (RejectedExecutionException e) {
+            DriverStation.reportWarning("RunnableCommand queue is full, the runnable was skipped", false);
+            future = null;
+        }
     }
 
     // Called repeatedly when this Command is scheduled to run
-    protected void execute() {
+    protected void doExecute() {
     }
 
     // Make this return true when this Command no longer needs to run execute()
-    protected boolean isFinished() {
-        return !t.isAlive();
+    protected boolean doIsFinished() {
+        return future == null || future.isDone() || isTimedOut();
     }
 
     // Called once after isFinished returns true
-    protected void end() {
-        t.interrupt();
+    protected void doEnd() {
+        if (future != null) {
+            future.cancel(true);
+        }
     }
 
     // Called when another command which requires one or more of the same
@@ -0,0 +1,88 @@
+package com.spikes2212.utils;
+
+import java.util.function.Supplier;
+
+/**
+ * This class keeps the values a sensor had during the last moments, sampled
+ * every {@link ControlLoop#PERIOD} seconds on the {@link ControlLoop}'s
+ * thread, so the value the sensor had at a past time can be looked up.
+ *
+ * <br>
+ * <br>
+ * This is used to match measurements which arrive late with the robot's state
+ * when they were taken. For example, a camera result about a frame captured
+ * 100 milliseconds ago should be compared with the gyro's angle from 100
+ * milliseconds ago, not with its current angle.
+ *
+ * @see TimeSeriesBuffer
+ */
+public class SensorHistory implements Runnable {
+
+	private final Supplier<Double> sensor;
+	private final TimeSeriesBuffer history;
+
+	/**
+	 * Constructs a new {@link SensorHistory}. It doesn't sample the sensor until
+	 * {@link #start()} is called.
+	 *
+	 * @param sensor
+	 *            a {@link Supplier} supplying the sensor's value
+	 * @param duration
+	 *            how long values are kept, in seconds
+	 */
+	public SensorHistory(Supplier<Double> sensor, double duration) {
+		this.sensor = sensor;
+		this.history = new TimeSeriesBuffer((int) Math.ceil(duration / ControlLoop.PERIOD) + 1, 1);
+	}
+
+	/**
+	 * Starts sampling the sensor on the {@link ControlLoop}'s thread.
+	 */
+	public void start() {
+		ControlLoop.add(this);
+	}
+
+	/**
+	 * Stops sampling the sensor. The values already sampled are kept.
+	 */
+	public void stop() {
+		ControlLoop.remove(this);
+	}
+
+	/**
+	 * Samples the sensor once. This is called by the {@link ControlLoop} after
+	 * {@link #start()}.
+	 */
+	@Override
+	public void run() {
+		history.add(Clock.now(), sensor.get());
+	}
+
+	/**
+	 * Gets the value the sensor had at the given time, interpolating between
+	 * the samples around it. Times older than the history get its oldest value,
+	 * and times after the last sample get the last value.
+	 *
+	 * @param time
+	 *            the time to look up according to {@link Clock}, in seconds
+	 * @return the value of the sensor at the time, or NaN if it wasn't sampled
+	 *         yet.
+	 */
+	public double get(double time) {
+		return history.get(time, 0);
+	}
+
+	/**
+	 * @return the last value sampled, or NaN if the sensor wasn't sampled yet.
+	 */
+	public double getLatest() {
+		return history.get(Double.POSITIVE_INFINITY, 0);
+	}
+
+	/**
+	 * Removes all of the values sampled.
+	 */
+	public void clear() {
+		history.clear();
+	}
+}
@@ -0,0 +1,165 @@
+package com.spikes2212.utils;
+
+/**
+ * This class decides when a mechanism has settled at its target, meaning its
+ * error stayed within a tolerance for a given amount of time. It is used by
+ * commands that end a specified amount of time after reaching their
+ * setpoint, so they all decide it the same way.
+ *
+ * <br>
+ * <br>
+ * The error enters the tolerance when its absolute value is at most the
+ * tolerance, and only leaves it when its absolute value is more than the exit
+ * tolerance. Setting an exit tolerance larger than the tolerance keeps noise
+ * around the edge of the tolerance from restarting the wait. A velocity
+ * tolerance can also be set, so a mechanism that is moving quickly through
+ * the target isn't considered settled.
+ *
+ * <br>
+ * <br>
+ * The time is given to every update by the caller, who should read it once
+ * per loop from a monotonic clock such as {@link Clock}. Updating doesn't
+ * allocate memory.
+ *
+ * @see PIDSettings
+ */
+public class SettleDetector {
+
+	private double tolerance;
+	private double exitTolerance = 0;
+	private double velocityTolerance = Double.POSITIVE_INFINITY;
+	private double waitTime;
+
+	private boolean inTolerance = false;
+	private double enterTime;
+	private double lastError = Double.NaN;
+	private double lastTime;
+
+	/**
+	 * Constructs a new {@link SettleDetector}.
+	 *
+	 * @param tolerance
+	 *            the largest absolute error considered on target
+	 * @param waitTime
+	 *            the time the error has to stay within tolerance, in seconds
+	 */
+	public SettleDetector(double tolerance, double waitTime) {
+		this.tolerance = tolerance;
+		this.waitTime = waitTime;
+	}
+
+	/**
+	 * Updates the detector with the current error.
+	 *
+	 * @param error
+	 *            the current error
+	 * @param time
+	 *            the current time, in seconds
+	 * @return true if the error has been within tolerance for the wait time.
+	 */
+	public boolean update(double error, double time) {
+		double absoluteError = Math.abs(error);
+		double velocity = 0;
+		if (!Double.isNaN(lastError) && time > lastTime) {
+			velocity = Math.abs(error - lastError) / (time - lastTime);
+		}
+		lastError = error;
+		lastTime = time;
+		boolean slowEnough = velocity <= velocityTolerance;
+		if (inTolerance) {
+			inTolerance = absoluteError <= Math.max(tolerance, exitTolerance) && slowEnough;
+		} else if (absoluteError <= tolerance && slowEnough) {
+			inTolerance = true;
+			enterTime = time;
+		}
+		return isSettled(time);
+	}
+
+	/**
+	 * Updates the detector with whether the mechanism is currently on target,
+	 * for checks that don't have an error, such as reaching a limit. The
+	 * tolerances are not used.
+	 *
+	 * @param onTarget
+	 *            true if the mechanism is currently on target
+	 * @param time
+	 *            the current time, in seconds
+	 * @return true if the mechanism has been on target for the wait time.
+	 */
+	public boolean update(boolean onTarget, double time) {
+		if (!onTarget) {
+			inTolerance = false;
+		} else if (!inTolerance) {
+			inTolerance = true;
+			enterTime = time;
+		}
+		return isSettled(time);
+	}
+
+	/**
+	 * @param time
+	 *            the current time, in seconds
+	 * @return true if the error has been within tolerance for the wait time,
+	 *         according to the last update.
+	 */
+	public boolean isSettled(double time) {
+		return inTolerance && time - enterTime >= waitTime;
+	}
+
+	/**
+	 * @return true if the error was within tolerance in the last update.
+	 */
+	public boolean isInTolerance() {
+		return inTolerance;
+	}
+
+	/**
+	 * Forgets all of the previous updates, so the wait starts again. This
+	 * should be called whenever the command using this detector starts.
+	 */
+	public void reset() {
+		inTolerance = false;
+		lastError = Double.NaN;
+	}
+
+	public double getTolerance() {
+		return tolerance;
+	}
+
+	public void setTolerance(double tolerance) {
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Sets the absolute error over which the error leaves the tolerance. If it
+	 * is smaller than the tolerance, the tolerance is used instead, which is
+	 * the default.
+	 *
+	 * @param exitTolerance
+	 *            the largest absolute error still considered on target after
+	 *            entering the tolerance
+	 */
+	public void setExitTolerance(double exitTolerance) {
+		this.exitTolerance = exitTolerance;
+	}
+
+	/**
+	 * Sets the largest rate of change of the error, in units per second, at
+	 * which the error is still considered within tolerance. There is no limit
+	 * by default.
+	 *
+	 * @param velocityTolerance
+	 *            the largest absolute rate of change of the error
+	 */
+	public void setVelocityTolerance(double velocityTolerance) {
+		this.velocityTolerance = velocityTolerance;
+	}
+
+	public double getWaitTime() {
+		return waitTime;
+	}
+
+	public void setWaitTime(double waitTime) {
+		this.waitTime = waitTime;
+	}
+}
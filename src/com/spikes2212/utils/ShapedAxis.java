@@ -0,0 +1,154 @@
+package com.spikes2212.utils;
+
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * This class shapes the values of a joystick axis before they are used, by
+ * applying a deadband, an expo curve, a scale and a slew rate limit.
+ *
+ * <br>
+ * <br>
+ * The deadband and the curve are calculated once into a lookup table whenever
+ * they change, and each read interpolates between the two nearest entries of
+ * the table, so reading the axis using {@link #getAsDouble()} doesn't
+ * allocate memory. The axis can be used both as a {@link DoubleSupplier} and
+ * as a Double {@link Supplier}, meaning it can be given directly to commands
+ * such as the drivetrain commands. Reading it as a Double {@link Supplier}
+ * boxes the value, which allocates memory for most values.
+ *
+ * @see XboXUID#getShapedLeftY()
+ */
+public class ShapedAxis implements DoubleSupplier, Supplier<Double> {
+
+	private static final int TABLE_SIZE = 257;
+
+	private final DoubleSupplier rawAxis;
+	private final double[] table = new double[TABLE_SIZE];
+	private double deadband = 0;
+	private double expo = 0;
+	private double scale = 1;
+	private double slewRate = Double.POSITIVE_INFINITY;
+
+	private double lastOutput;
+	private double lastTime;
+	private boolean hasOutput = false;
+
+	/**
+	 * Constructs a new {@link ShapedAxis} which returns the values of the given
+	 * axis unchanged, until it is configured otherwise.
+	 *
+	 * @param rawAxis
+	 *            a {@link DoubleSupplier} supplying the axis' values, between -1
+	 *            and 1
+	 */
+	public ShapedAxis(DoubleSupplier rawAxis) {
+		this.rawAxis = rawAxis;
+		buildTable();
+	}
+
+	/**
+	 * Sets the deadband of this axis. Values closer to 0 than the deadband
+	 * return 0, and the rest of the range is stretched so the output still
+	 * goes smoothly from 0 to 1.
+	 *
+	 * @param deadband
+	 *            the deadband, between 0 and 1
+	 */
+	public void setDeadband(double deadband) {
+		this.deadband = deadband;
+		buildTable();
+	}
+
+	/**
+	 * Sets how much of the cubic curve is mixed into this axis. An expo of 0
+	 * keeps the axis linear, and an expo of 1 returns the cube of the value,
+	 * giving finer control near the center.
+	 *
+	 * @param expo
+	 *            the part of the output taken from the cubic curve, between 0
+	 *            and 1
+	 */
+	public void setExpo(double expo) {
+		this.expo = expo;
+		buildTable();
+	}
+
+	/**
+	 * Sets the value this axis' output is multiplied by after the curve.
+	 *
+	 * @param scale
+	 *            the scale of the output
+	 */
+	public void setScale(double scale) {
+		this.scale = scale;
+	}
+
+	/**
+	 * Sets the maximum rate this axis' output can change at. The output
+	 * follows the joystick with this rate when the joystick moves faster.
+	 *
+	 * @param slewRate
+	 *            the maximum change of the output per second. Use
+	 *            {@link Double#POSITIVE_INFINITY} to disable the limit.
+	 */
+	public void setSlewRate(double slewRate) {
+		this.slewRate = slewRate;
+	}
+
+	/**
+	 * Makes the next read return the shaped value without limiting its change
+	 * from the last read.
+	 */
+	public void reset() {
+		hasOutput = false;
+	}
+
+	/**
+	 * Calculates the deadband and the curve for evenly spaced values between 0
+	 * and 1. Negative values use the same table with the opposite sign.
+	 */
+	private void buildTable() {
+		for (int i = 0; i < TABLE_SIZE; i++) {
+			double value = (double) i / (TABLE_SIZE - 1);
+			double stretched = value <= deadband ? 0 : (value - deadband) / (1 - deadband);
+			table[i] = (1 - expo) * stretched + expo * stretched * stretched * stretched;
+		}
+	}
+
+	/**
+	 * Reads the axis and shapes its value.
+	 *
+	 * @return the shaped value of the axis.
+	 */
+	@Override
+	public double getAsDouble() {
+		double raw = rawAxis.getAsDouble();
+		double position = Math.min(Math.abs(raw), 1) * (TABLE_SIZE - 1);
+		int index = Math.min((int) position, TABLE_SIZE - 2);
+		double fraction = position - index;
+		double magnitude = table[index] + (table[index + 1] - table[index]) * fraction;
+		double shaped = Math.copySign(magnitude, raw) * scale;
+
+		double now = Clock.now();
+		if (hasOutput && slewRate != Double.POSITIVE_INFINITY) {
+			double maxChange = slewRate * (now - lastTime);
+			shaped = Math.max(lastOutput - maxChange, Math.min(lastOutput + maxChange, shaped));
+		}
+		hasOutput = true;
+		lastTime = now;
+		lastOutput = shaped;
+		return shaped;
+	}
+
+	/**
+	 * Reads the axis and shapes its value. Unlike {@link #getAsDouble()}, the
+	 * value is boxed.
+	 *
+	 * @return the shaped value of the axis.
+	 */
+	@Override
+	public Double get() {
+		return getAsDouble();
+	}
+}
@@ -0,0 +1,172 @@
+package com.spikes2212.utils;
+
+/**
+ * This class keeps the latest timestamped samples of one or more values, such
+ * as a heading or a pose, in a fixed size ring buffer, so the values at a past
+ * time can be looked up. It is meant for matching measurements that arrive
+ * late, like camera results, with the state of the robot when they were taken.
+ *
+ * <br>
+ * <br>
+ * Samples must be added in time order. Once the buffer is full, each new
+ * sample replaces the oldest one. Adding and looking up samples doesn't
+ * allocate memory.
+ */
+public class TimeSeriesBuffer {
+
+	private final double[] times;
+	private final double[] values;
+	private final int channels;
+	private int head = 0;
+	private int size = 0;
+
+	/**
+	 * Constructs a new empty {@link TimeSeriesBuffer}.
+	 *
+	 * @param capacity
+	 *            the amount of samples kept
+	 * @param channels
+	 *            the amount of values in each sample
+	 */
+	public TimeSeriesBuffer(int capacity, int channels) {
+		if (capacity < 1 || channels < 1) {
+			throw new IllegalArgumentException("Cannot construct TimeSeriesBuffer without room for samples");
+		}
+		this.times = new double[capacity];
+		this.values = new double[capacity * channels];
+		this.channels = channels;
+	}
+
+	/**
+	 * Adds a sample, replacing the oldest one if the buffer is full.
+	 *
+	 * @param time
+	 *            the time of the sample, in seconds. Must not be earlier than
+	 *            the time of the last sample added.
+	 * @param sample
+	 *            the values of the sample, one for each channel
+	 */
+	public synchronized void add(double time, double[] sample) {
+		times[head] = time;
+		System.arraycopy(sample, 0, values, head * channels, channels);
+		head = (head + 1) % times.length;
+		if (size < times.length) {
+			size++;
+		}
+	}
+
+	/**
+	 * Adds a sample of a single channel buffer.
+	 *
+	 * @param time
+	 *            the time of the sample, in seconds. Must not be earlier than
+	 *            the time of the last sample added.
+	 * @param value
+	 *            the value of the sample
+	 */
+	public synchronized void add(double time, double value) {
+		times[head] = time;
+		values[head * channels] = value;
+		head = (head + 1) % times.length;
+		if (size < times.length) {
+			size++;
+		}
+	}
+
+	/**
+	 * Looks up the values at the given time, interpolating linearly between
+	 * the two samples around it. Times before the oldest sample or after the
+	 * newest sample get the values of that sample.
+	 *
+	 * @param time
+	 *            the time to look up, in seconds
+	 * @param output
+	 *            the array to write the values to, one for each channel
+	 * @return true if the values were written, or false if the buffer is empty.
+	 */
+	public synchronized boolean get(double time, double[] output) {
+		if (size == 0) {
+			return false;
+		}
+		int before = indexBefore(time);
+		int after = Math.min(before + 1, size - 1);
+		int beforeIndex = physical(before), afterIndex = physical(after);
+		double fraction = 0;
+		if (after != before && time > times[beforeIndex]) {
+			fraction = Math.min(1, (time - times[beforeIndex]) / (times[afterIndex] - times[beforeIndex]));
+		}
+		for (int i = 0; i < channels; i++) {
+			double start = values[beforeIndex * channels + i];
+			double end = values[afterIndex * channels + i];
+			output[i] = start + (end - start) * fraction;
+		}
+		return true;
+	}
+
+	/**
+	 * Looks up one value at the given time, as in {@link #get(double, double[])}.
+	 *
+	 * @param time
+	 *            the time to look up, in seconds
+	 * @param channel
+	 *            the index of the value in each sample
+	 * @return the value at the given time, or NaN if the buffer is empty.
+	 */
+	public synchronized double get(double time, int channel) {
+		if (size == 0) {
+			return Double.NaN;
+		}
+		int before = indexBefore(time);
+		int after = Math.min(before + 1, size - 1);
+		int beforeIndex = physical(before), afterIndex = physical(after);
+		double start = values[beforeIndex * channels + channel];
+		if (after == before || time <= times[beforeIndex]) {
+			return start;
+		}
+		double fraction = Math.min(1, (time - times[beforeIndex]) / (times[afterIndex] - times[beforeIndex]));
+		return start + (values[afterIndex * channels + channel] - start) * fraction;
+	}
+
+	/**
+	 * @return the time of the newest sample, or NaN if the buffer is empty.
+	 */
+	public synchronized double getLatestTime() {
+		return size == 0 ? Double.NaN : times[physical(size - 1)];
+	}
+
+	/**
+	 * @return the amount of samples in the buffer.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all of the samples.
+	 */
+	public synchronized void clear() {
+		head = 0;
+		size = 0;
+	}
+
+	/**
+	 * Finds the newest sample that isn't after the given time, by its order
+	 * from the oldest sample. Returns 0 if all of the samples are after it.
+	 */
+	private int indexBefore(double time) {
+		int low = 0, high = size - 1;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (times[physical(middle)] <= time) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+
+	private int physical(int index) {
+		return (head - size + index + times.length) % times.length;
+	}
+}
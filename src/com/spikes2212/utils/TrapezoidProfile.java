@@ -0,0 +1,117 @@
+package com.spikes2212.utils;
+
+/**
+ * This class plans a movement over a distance which speeds up at a constant
+ * acceleration, moves at a maximum velocity, and slows down at the same
+ * acceleration, so it starts and ends at rest. If the distance is too short to
+ * reach the maximum velocity, the movement slows down as soon as it finishes
+ * speeding up.
+ *
+ * <br>
+ * <br>
+ * The same {@link TrapezoidProfile} can plan a new movement using
+ * {@link #plan(double)} without allocating memory. The position and velocity
+ * of the current movement at any time can then be looked up, for example to be
+ * used as the setpoint of a PID loop.
+ */
+public class TrapezoidProfile {
+
+	private final double maxVelocity;
+	private final double maxAcceleration;
+	private double sign = 1;
+	private double distance = 0;
+	private double peakVelocity = 0;
+	private double accelerationTime = 0;
+	private double cruiseTime = 0;
+
+	/**
+	 * Constructs a new {@link TrapezoidProfile} with the given limits and no
+	 * movement planned.
+	 *
+	 * @param maxVelocity
+	 *            the maximum velocity, in units of distance per second
+	 * @param maxAcceleration
+	 *            the acceleration and deceleration, in units of distance per
+	 *            second squared
+	 */
+	public TrapezoidProfile(double maxVelocity, double maxAcceleration) {
+		if (maxVelocity <= 0 || maxAcceleration <= 0) {
+			throw new IllegalArgumentException("Cannot construct TrapezoidProfile without positive limits");
+		}
+		this.maxVelocity = maxVelocity;
+		this.maxAcceleration = maxAcceleration;
+	}
+
+	/**
+	 * Plans a new movement over the given distance.
+	 *
+	 * @param distance
+	 *            the distance to move. Negative values move backwards.
+	 */
+	public void plan(double distance) {
+		this.sign = distance < 0 ? -1 : 1;
+		this.distance = Math.abs(distance);
+		double accelerationDistance = maxVelocity * maxVelocity / maxAcceleration;
+		if (this.distance >= accelerationDistance) {
+			peakVelocity = maxVelocity;
+			accelerationTime = maxVelocity / maxAcceleration;
+			cruiseTime = (this.distance - accelerationDistance) / maxVelocity;
+		} else {
+			peakVelocity = Math.sqrt(this.distance * maxAcceleration);
+			accelerationTime = peakVelocity / maxAcceleration;
+			cruiseTime = 0;
+		}
+	}
+
+	/**
+	 * @return the time the planned movement takes, in seconds.
+	 */
+	public double getDuration() {
+		return 2 * accelerationTime + cruiseTime;
+	}
+
+	/**
+	 * Gets the distance moved since the start of the planned movement.
+	 *
+	 * @param time
+	 *            the time since the start of the movement, in seconds
+	 * @return the distance moved, with the sign of the planned distance.
+	 */
+	public double getPosition(double time) {
+		double position;
+		if (time <= 0) {
+			position = 0;
+		} else if (time < accelerationTime) {
+			position = maxAcceleration * time * time / 2;
+		} else if (time < accelerationTime + cruiseTime) {
+			position = peakVelocity * accelerationTime / 2 + peakVelocity * (time - accelerationTime);
+		} else if (time < getDuration()) {
+			double timeLeft = getDuration() - time;
+			position = distance - maxAcceleration * timeLeft * timeLeft / 2;
+		} else {
+			position = distance;
+		}
+		return sign * position;
+	}
+
+	/**
+	 * Gets the velocity of the planned movement.
+	 *
+	 * @param time
+	 *            the time since the start of the movement, in seconds
+	 * @return the velocity, with the sign of the planned distance.
+	 */
+	public double getVelocity(double time) {
+		double velocity;
+		if (time <= 0 || time >= getDuration()) {
+			velocity = 0;
+		} else if (time < accelerationTime) {
+			velocity = maxAcceleration * time;
+		} else if (time < accelerationTime + cruiseTime) {
+			velocity = peakVelocity;
+		} else {
+			velocity = maxAcceleration * (getDuration() - time);
+		}
+		return sign * velocity;
+	}
+}
@@ -0,0 +1,70 @@
+package com.spikes2212.utils;
+
+/**
+ * This class is a {@link Clock} whose time only changes when it is stepped,
+ * used to run commands in tests and simulations faster than real time and with
+ * the same results every run.
+ *
+ * <br>
+ * <br>
+ * Note that <a href=
+ * "http://first.wpi.edu/FRC/roborio/release/docs/java/edu/wpi/first/wpilibj/command/Command.html">Command</a>'s
+ * own timeout is measured by wpilib in real time, and isn't affected by this
+ * clock.
+ *
+ * @see Clock
+ */
+public class VirtualClock extends Clock {
+
+	private volatile double time;
+
+	/**
+	 * Constructs a new {@link VirtualClock} starting at time 0.
+	 */
+	public VirtualClock() {
+		this(0);
+	}
+
+	/**
+	 * Constructs a new {@link VirtualClock} starting at the given time.
+	 *
+	 * @param time
+	 *            the starting time, in seconds
+	 */
+	public VirtualClock(double time) {
+		this.time = time;
+	}
+
+	@Override
+	public double getTime() {
+		return time;
+	}
+
+	/**
+	 * Moves the time forward.
+	 *
+	 * @param seconds
+	 *            the time to move forward by, in seconds. Must not be
+	 *            negative.
+	 */
+	public synchronized void step(double seconds) {
+		if (seconds < 0) {
+			throw new IllegalArgumentException("Cannot step a VirtualClock backwards");
+		}
+		time += seconds;
+	}
+
+	/**
+	 * Sets the time.
+	 *
+	 * @param time
+	 *            the new time, in seconds. Must not be earlier than the
+	 *            current time.
+	 */
+	public synchronized void setTime(double time) {
+		if (time < this.time) {
+			throw new IllegalArgumentException("Cannot set a VirtualClock backwards");
+		}
+		this.time = time;
+	}
+}
@@ -1,10 +1,77 @@
 package com.spikes2212.utils;
 
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.XboxController;
 import edu.wpi.first.wpilibj.buttons.Button;
 
+/**
+ * This class is an {@link XboxController} whose buttons can be bound to
+ * commands directly, and which reads the joystick only once per robot loop.
+ * 
+ * <br>
+ * <br>
+ * All of the axes, buttons and the POV are read together into a snapshot,
+ * which every getter and button uses. Calling {@link #update()} once at the
+ * start of every robot loop, before the scheduler runs, reads the snapshot
+ * exactly once per loop, so every command and button sees the same inputs for
+ * the whole loop. Until {@link #update()} is first called, the snapshot is
+ * instead read whenever it is older than {@link #SNAPSHOT_PERIOD} by the
+ * default {@link Clock}. Each button is constructed once, so getting the same
+ * button twice returns the same {@link Button}.
+ */
 public class XboXUID extends XboxController {
 
+	/**
+	 * The time a snapshot of the joystick is used before it is read again when
+	 * {@link #update()} isn't called, in seconds.
+	 */
+	public static final double SNAPSHOT_PERIOD = 0.01;
+
+	protected static final int LEFT_X = 0, LEFT_Y = 1, LEFT_TRIGGER = 2, RIGHT_TRIGGER = 3, RIGHT_X = 4,
+			RIGHT_Y = 5;
+	protected static final int A = 1, B = 2, X = 3, Y = 4, LEFT_BUMPER = 5, RIGHT_BUMPER = 6, LEFT_STICK = 9,
+			RIGHT_STICK = 10;
+
+	/**
+	 * The values of the axes in the current snapshot, by their axis index.
+	 */
+	protected final double[] axes = new double[6];
+
+	/**
+	 * The buttons in the current snapshot, where bit {@code i - 1} is set when
+	 * button {@code i} is pressed.
+	 */
+	protected int buttons;
+
+	/**
+	 * The angle of the POV in the current snapshot, or -1 if it isn't pressed.
+	 */
+	protected int pov = -1;
+
+	private double lastSnapshotTime;
+	private boolean hasSnapshot = false;
+	private boolean updatedManually = false;
+
+	private final Button greenButton = button(A);
+	private final Button blueButton = button(X);
+	private final Button redButton = button(B);
+	private final Button yellowButton = button(Y);
+	private final Button rbButton = button(RIGHT_BUMPER);
+	private final Button lbButton = button(LEFT_BUMPER);
+	private final Button rightStickButton = button(RIGHT_STICK);
+	private final Button leftStickButton = button(LEFT_STICK);
+	private final Button upButton = povButton(0);
+	private final Button downButton = povButton(180);
+	private final Button leftButton = povButton(270);
+	private final Button rightButton = povButton(90);
+
+	private final ShapedAxis shapedLeftX = new ShapedAxis(this::getLeftX);
+	private final ShapedAxis shapedLeftY = new ShapedAxis(this::getLeftY);
+	private final ShapedAxis shapedRightX = new ShapedAxis(this::getRightX);
+	private final ShapedAxis shapedRightY = new ShapedAxis(this::getRightY);
+	private final ShapedAxis shapedLTAxis = new ShapedAxis(this::getLTAxis);
+	private final ShapedAxis shapedRTAxis = new ShapedAxis(this::getRTAxis);
+
 	/**
 	 * Constructs a new {@link XboXUID} using the port of the USB on the driver
 	 * station.
@@ -18,48 +85,133 @@ public class XboXUID extends XboxController {
 	}
 
 	/**
-	 * Returns the green button on the joystick.
+	 * Reads the joystick into the snapshot. This should be called once at the
+	 * start of every robot loop, for example in robotPeriodic before the
+	 * scheduler runs. Once this is called, the snapshot is only read by this
+	 * method.
+	 */
+	public void update() {
+		updatedManually = true;
+		hasSnapshot = true;
+		readSnapshot();
+	}
+
+	/**
+	 * @return true if {@link #update()} was called, so the snapshot is only
+	 *         read by it.
+	 */
+	protected boolean isUpdatedManually() {
+		return updatedManually;
+	}
+
+	/**
+	 * Reads the joystick into the snapshot if there is none yet, or if
+	 * {@link #update()} was never called and the snapshot is older than
+	 * {@link #SNAPSHOT_PERIOD}.
+	 */
+	protected void updateSnapshot() {
+		if (updatedManually) {
+			return;
+		}
+		double now = Clock.now();
+		if (!hasSnapshot || now - lastSnapshotTime >= SNAPSHOT_PERIOD) {
+			hasSnapshot = true;
+			lastSnapshotTime = now;
+			readSnapshot();
+		}
+	}
+
+	/**
+	 * Reads all of the axes, the buttons and the POV of the joystick into the
+	 * snapshot.
+	 */
+	protected void readSnapshot() {
+		for (int i = 0; i < axes.length; i++) {
+			axes[i] = getRawAxis(i);
+		}
+		buttons = DriverStation.getInstance().getStickButtons(getPort());
+		pov = getPOV(0);
+	}
+
+	/**
+	 * Returns the value of an axis in the current snapshot.
 	 * 
-	 * @return the green button on the joystick.
+	 * @param axis
+	 *            the index of the axis
+	 * @return the value of the axis.
 	 */
-	public Button getGreenButton() {
+	protected double getSnapshotAxis(int axis) {
+		updateSnapshot();
+		return axes[axis];
+	}
+
+	/**
+	 * Returns whether a button is pressed in the current snapshot.
+	 * 
+	 * @param button
+	 *            the index of the button, starting at 1
+	 * @return true if the button is pressed.
+	 */
+	protected boolean getSnapshotButton(int button) {
+		updateSnapshot();
+		return (buttons & (1 << (button - 1))) != 0;
+	}
+
+	/**
+	 * Returns the angle of the POV in the current snapshot.
+	 * 
+	 * @return the angle of the POV, or -1 if it isn't pressed.
+	 */
+	protected int getSnapshotPOV() {
+		updateSnapshot();
+		return pov;
+	}
+
+	private Button button(int button) {
 		return new Button() {
 
 			@Override
 			public boolean get() {
-				return getAButton();
+				return getSnapshotButton(button);
 			}
 		};
 	}
 
-	/**
-	 * Returns the blue button on the joystick.
-	 * 
-	 * @return the blue button on the joystick.
-	 */
-	public Button getBlueButton() {
+	private Button povButton(int angle) {
 		return new Button() {
 
 			@Override
 			public boolean get() {
-				return getXButton();
+				return getSnapshotPOV() == angle;
 			}
 		};
 	}
 
+	/**
+	 * Returns the green button on the joystick.
+	 * 
+	 * @return the green button on the joystick.
+	 */
+	public Button getGreenButton() {
+		return greenButton;
+	}
+
+	/**
+	 * Returns the blue button on the joystick.
+	 * 
+	 * @return the blue button on the joystick.
+	 */
+	public Button getBlueButton() {
+		return blueButton;
+	}
+
 	/**
 	 * Returns the red button on the joystick.
 	 * 
 	 * @return the red button on the joystick.
 	 */
 	public Button getRedButton() {
-		return new Button() {
-
-			@Override
-			public boolean get() {
-				return getBButton();
-			}
-		};
+		return redButton;
 	}
 
 	/**
@@ -68,13 +220,7 @@ public class XboXUID extends XboxController {
 	 * @return the yellow button on the joystick.
 	 */
 	public Button getYellowButton() {
-		return new Button() {
-
-			@Override
-			public boolean get() {
-				return getYButton();
-			}
-		};
+		return yellowButton;
 	}
 
 	/**
@@ -83,7 +229,7 @@ public class XboXUID extends XboxController {
 	 * @return the value of the right trigger on the joystick.
 	 */
 	public double getRTAxis() {
-		return getTriggerAxis(Hand.kRight);
+		return getSnapshotAxis(RIGHT_TRIGGER);
 	}
 
 	/**
@@ -92,7 +238,7 @@ public class XboXUID extends XboxController {
 	 * @return the value of the left trigger on the joystick.
 	 */
 	public double getLTAxis() {
-		return getTriggerAxis(Hand.kLeft);
+		return getSnapshotAxis(LEFT_TRIGGER);
 	}
 
 	/**
@@ -101,13 +247,7 @@ public class XboXUID extends XboxController {
 	 * @return the right bumper button on the joystick.
 	 */
 	public Button getRBButton() {
-		return new Button() {
-
-			@Override
-			public boolean get() {
-				return getBumper(Hand.kRight);
-			}
-		};
+		return rbButton;
 	}
 
 	/**
@@ -116,13 +256,7 @@ public class XboXUID extends XboxController {
 	 * @return the left bumper button on the joystick.
 	 */
 	public Button getLBButton() {
-		return new Button() {
-
-			@Override
-			public boolean get() {
-				return getBumper(Hand.kLeft);
-			}
-		};
+		return lbButton;
 	}
 
 	/**
@@ -131,13 +265,7 @@ public class XboXUID extends XboxController {
 	 * @return the button on the right stick.
 	 */
 	public Button getRightStickButton() {
-		return new Button() {
-
-			@Override
-			public boolean get() {
-				return getStickButton(Hand.kRight);
-			}
-		};
+		return rightStickButton;
 	}
 
 	/**
@@ -146,13 +274,7 @@ public class XboXUID extends XboxController {
 	 * @return the button on the left stick.
 	 */
 	public Button getLeftStickButton() {
-		return new Button() {
-
-			@Override
-			public boolean get() {
-				return getStickButton(Hand.kLeft);
-			}
-		};
+		return leftStickButton;
 	}
 
 	/**
@@ -161,7 +283,7 @@ public class XboXUID extends XboxController {
 	 * @return the X axis value of the right stick.
 	 */
 	public double getRightX() {
-		return getX(Hand.kRight);
+		return getSnapshotAxis(RIGHT_X);
 	}
 
 	/**
@@ -170,7 +292,7 @@ public class XboXUID extends XboxController {
 	 * @return the Y axis value of the right stick.
 	 */
 	public double getRightY() {
-		return getY(Hand.kRight);
+		return getSnapshotAxis(RIGHT_Y);
 	}
 
 	/**
@@ -179,7 +301,7 @@ public class XboXUID extends XboxController {
 	 * @return the X axis value of the left stick.
 	 */
 	public double getLeftX() {
-		return getX(Hand.kLeft);
+		return getSnapshotAxis(LEFT_X);
 	}
 
 	/**
@@ -188,7 +310,7 @@ public class XboXUID extends XboxController {
 	 * @return the Y axis value of the left stick.
 	 */
 	public double getLeftY() {
-		return getY(Hand.kLeft);
+		return getSnapshotAxis(LEFT_Y);
 	}
 
 	/**
@@ -197,12 +319,7 @@ public class XboXUID extends XboxController {
 	 * @return the up arrow button.
 	 */
 	public Button getUpButton() {
-		return new Button() {
-			@Override
-			public boolean get() {
-				return getPOV() == 0;
-			}
-		};
+		return upButton;
 	}
 
 	/**
@@ -211,12 +328,7 @@ public class XboXUID extends XboxController {
 	 * @return the down arrow button.
 	 */
 	public Button getDownButton() {
-		return new Button() {
-			@Override
-			public boolean get() {
-				return getPOV() == 180;
-			}
-		};
+		return downButton;
 	}
 
 	/**
@@ -225,12 +337,7 @@ public class XboXUID extends XboxController {
 	 * @return the left arrow button.
 	 */
 	public Button getLeftButton() {
-		return new Button() {
-			@Override
-			public boolean get() {
-				return getPOV() == 270;
-			}
-		};
+		return leftButton;
 	}
 
 	/**
@@ -239,11 +346,66 @@ public class XboXUID extends XboxController {
 	 * @return the right arrow button.
 	 */
 	public Button getRightButton() {
-		return new Button() {
-			@Override
-			public boolean get() {
-				return getPOV() == 90;
-			}
-		};
+		return rightButton;
+	}
+
+	/**
+	 * Returns the shaped X axis of the left stick. Configure its deadband,
+	 * curve, scale and slew rate once, and pass it to commands as a supplier.
+	 * 
+	 * @return the {@link ShapedAxis} of the left stick's X axis.
+	 */
+	public ShapedAxis getShapedLeftX() {
+		return shapedLeftX;
+	}
+
+	/**
+	 * Returns the shaped Y axis of the left stick. Configure its deadband,
+	 * curve, scale and slew rate once, and pass it to commands as a supplier.
+	 * 
+	 * @return the {@link ShapedAxis} of the left stick's Y axis.
+	 */
+	public ShapedAxis getShapedLeftY() {
+		return shapedLeftY;
+	}
+
+	/**
+	 * Returns the shaped X axis of the right stick. Configure its deadband,
+	 * curve, scale and slew rate once, and pass it to commands as a supplier.
+	 * 
+	 * @return the {@link ShapedAxis} of the right stick's X axis.
+	 */
+	public ShapedAxis getShapedRightX() {
+		return shapedRightX;
+	}
+
+	/**
+	 * Returns the shaped Y axis of the right stick. Configure its deadband,
+	 * curve, scale and slew rate once, and pass it to commands as a supplier.
+	 * 
+	 * @return the {@link ShapedAxis} of the right stick's Y axis.
+	 */
+	public ShapedAxis getShapedRightY() {
+		return shapedRightY;
+	}
+
+	/**
+	 * Returns the shaped axis of the left trigger. Configure its deadband,
+	 * curve, scale and slew rate once, and pass it to commands as a supplier.
+	 * 
+	 * @return the {@link ShapedAxis} of the left trigger.
+	 */
+	public ShapedAxis getShapedLTAxis() {
+		return shapedLTAxis;
+	}
+
+	/**
+	 * Returns the shaped axis of the right trigger. Configure its deadband,
+	 * curve, scale and slew rate once, and pass it to commands as a supplier.
+	 * 
+	 * @return the {@link ShapedAxis} of the right trigger.
+	 */
+	public ShapedAxis getShapedRTAxis() {
+		return shapedRTAxis;
 	}
 }
\ No newline at end of file